@@ -1,11 +1,9 @@
 package com.colorgreen.swiping;
 
-import android.graphics.Color;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
-import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
@@ -13,11 +11,15 @@ import android.widget.RelativeLayout;
 import com.colorgreen.swiper.OnSwipeTouchListener;
 import com.colorgreen.swiper.SwipeAction;
 import com.colorgreen.swiper.SwipeActionListener;
+import com.colorgreen.swiper.ViewPropertyBinding;
+import com.colorgreen.swiper.core.ColorLut;
+import com.colorgreen.swiper.core.RelativeSteps;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 
 public class MainActivity extends AppCompatActivity {
+    private static final String SWIPE_STATE = "swipe_state";
 
     @BindView( R.id.main_layout )
     RelativeLayout mainLayout;
@@ -30,6 +32,8 @@ public class MainActivity extends AppCompatActivity {
     @BindView( R.id.collapse_button)
     Button collapseButton;
 
+    private OnSwipeTouchListener listener;
+
     @Override
     protected void onCreate( Bundle savedInstanceState ) {
         super.onCreate( savedInstanceState );
@@ -40,96 +44,65 @@ public class MainActivity extends AppCompatActivity {
         final int lightBlue = getColor( R.color.lightblue );
         final int darkBlue = getColor( R.color.darkblue );
 
-        final OnSwipeTouchListener listener = new OnSwipeTouchListener();
+        listener = new OnSwipeTouchListener();
+
+        // for drawing layouts over buttons
+        bar.setZ(10);
+        bottombar.setZ(10);
+
+        // steps are parts of height of main layout, resolved after it is laid out
+        final SwipeAction swipeAction = new SwipeAction();
+        swipeAction.setDirection( SwipeAction.DragDirection.Down );
+        swipeAction.setDragThreshold( 0.4f );
+        swipeAction.setSteps( RelativeSteps.fractions( 0, 0.3f, 1 ), mainLayout );
+        // gradient is computed once, sampled with total friction on every update
+        swipeAction.bindBackgroundColor( bar, ColorLut.hsv( lightBlue, darkBlue ) );
+
+        final SwipeAction bottomSwipeAction = new SwipeAction();
+        bottomSwipeAction.setDirection( SwipeAction.DragDirection.Up );
+        bottomSwipeAction.setDragThreshold( 0.2f );
+        bottomSwipeAction.setSteps( RelativeSteps.fractions( 1, 0.3f, 0 ), mainLayout );
+        // moves bottom bar without layout pass, also to its first step once steps are resolved
+        bottomSwipeAction.bind( bottombar, ViewPropertyBinding.Property.Y );
 
-        bar.getViewTreeObserver().addOnGlobalLayoutListener( new ViewTreeObserver.OnGlobalLayoutListener() {
+        swipeAction.setSwipeActionListener( new SwipeActionListener() {
             @Override
-            public void onGlobalLayout() {
-                bar.getViewTreeObserver().removeOnGlobalLayoutListener( this );
-
-                // for drawing layouts over buttons
-                bar.setZ(10);
-                bottombar.setZ(10);
-
-                final int targetHeight = mainLayout.getHeight();
-
-                final SwipeAction swipeAction = new SwipeAction();
-                swipeAction.setDirection( SwipeAction.DragDirection.Down );
-                swipeAction.setDragThreshold( 0.4f );
-                swipeAction.setSteps( new float[]{ 0, targetHeight * 0.3f, targetHeight } );
-
-                bottombar.setY( targetHeight );
-                final SwipeAction bottomSwipeAction = new SwipeAction();
-                bottomSwipeAction.setDirection( SwipeAction.DragDirection.Up );
-                bottomSwipeAction.setDragThreshold( 0.2f );
-                bottomSwipeAction.setSteps( new float[]{ targetHeight, targetHeight - targetHeight * 0.7f, 0 } );
-
-                bottomSwipeAction.setSwipeActionListener( new SwipeActionListener() {
-                    @Override
-                    public void onDragStart( float val, float totalFriction ) {}
-
-                    @Override
-                    public void onDrag( float val, float totalFriction ) {
-                        bottombar.setY( val );
-                    }
-
-                    @Override
-                    public void onDragEnd( float val, float totalFriction ) {
-                        swipeAction.setBlocked( bottomSwipeAction.isExtended() );
-                    }
-                } );
-
-                swipeAction.setSwipeActionListener( new SwipeActionListener() {
-                    @Override
-                    public void onDragStart( float val, float totalFriction ) {}
-
-                    @Override
-                    public void onDrag( float val, float friction ) {
-                        bar.setLayoutParams( new RelativeLayout.LayoutParams( bar.getWidth(), (int) val ) );
-                        bar.setBackgroundColor( interpolateColor( lightBlue, darkBlue, val / targetHeight ) );
-                    }
-
-                    @Override
-                    public void onDragEnd( float val, float totalFriction ) {
-                        bottomSwipeAction.setBlocked( swipeAction.isExtended() );
-                    }
-                } );
-
-                listener.addAction( swipeAction );
-                listener.addAction( bottomSwipeAction );
-
-                expandButton.setOnClickListener( v -> {
-                    if( !swipeAction.isBlocked() )
-                        swipeAction.expand();
-                } );
-
-                collapseButton.setOnClickListener( v -> {
-                        if( !swipeAction.isBlocked() )
-                            swipeAction.collapse();
-                } );
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float friction ) {
+                bar.setLayoutParams( new RelativeLayout.LayoutParams( bar.getWidth(), (int) val ) );
             }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
         } );
 
-        listener.attachToView( mainLayout );
-    }
+        listener.addAction( swipeAction );
+        listener.addAction( bottomSwipeAction );
+        // only one bar can be open, the other one does not receive touches meanwhile
+        listener.addExclusionGroup( swipeAction, bottomSwipeAction );
+
+        expandButton.setOnClickListener( v -> {
+            if( !swipeAction.isSuspended() )
+                swipeAction.expand();
+        } );
 
-    ////////////////////////////////////////////////////////////////////////////////////////////////
+        collapseButton.setOnClickListener( v -> {
+            if( !swipeAction.isSuspended() )
+                swipeAction.collapse();
+        } );
+
+        // panels stay open after rotation, without animation
+        if( savedInstanceState != null )
+            listener.restoreState( savedInstanceState.getParcelable( SWIPE_STATE ) );
 
-    private float interpolate( float a, float b, float proportion ) {
-        return ( a + ( ( b - a ) * proportion ) );
+        listener.attachToView( mainLayout );
     }
 
-    /**
-     * Returns an interpoloated color, between <code>a</code> and <code>b</code>
-     */
-    private int interpolateColor( int a, int b, float proportion ) {
-        float[] hsva = new float[3];
-        float[] hsvb = new float[3];
-        Color.colorToHSV( a, hsva );
-        Color.colorToHSV( b, hsvb );
-        for( int i = 0; i < 3; i++ ) {
-            hsvb[i] = interpolate( hsva[i], hsvb[i], proportion );
-        }
-        return Color.HSVToColor( hsvb );
+    @Override
+    protected void onSaveInstanceState( Bundle outState ) {
+        super.onSaveInstanceState( outState );
+        outState.putParcelable( SWIPE_STATE, listener.saveState() );
     }
 }
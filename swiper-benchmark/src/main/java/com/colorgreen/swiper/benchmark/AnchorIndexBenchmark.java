@@ -0,0 +1,65 @@
+package com.colorgreen.swiper.benchmark;
+
+import com.colorgreen.swiper.core.AnchorIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding nearest 2D anchor to projected landing position, done on every fling end.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class AnchorIndexBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param( { "16", "256", "2048" } )
+    public int anchors;
+
+    private AnchorIndex index;
+    private final float[] xs = new float[QUERIES];
+    private final float[] ys = new float[QUERIES];
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random( 1 );
+        final float[] ax = new float[anchors];
+        final float[] ay = new float[anchors];
+        for( int i = 0; i < anchors; i++ ) {
+            ax[i] = random.nextFloat() * 1080;
+            ay[i] = random.nextFloat() * 1920;
+        }
+        index = new AnchorIndex( ax, ay );
+
+        for( int i = 0; i < QUERIES; i++ ) {
+            xs[i] = random.nextFloat() * 1400 - 160;
+            ys[i] = random.nextFloat() * 2400 - 240;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( QUERIES )
+    public int nearest() {
+        int sum = 0;
+        for( int i = 0; i < QUERIES; i++ )
+            sum += index.nearest( xs[i], ys[i] );
+        return sum;
+    }
+}
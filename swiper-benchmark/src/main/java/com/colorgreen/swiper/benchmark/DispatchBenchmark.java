@@ -0,0 +1,74 @@
+package com.colorgreen.swiper.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of dispatching synthetic gestures to 1, 4 and 32 actions.
+ * <p>
+ * {@link #perEvent()} reports ns per dispatched event ( touch sample or animation frame ),
+ * {@link #perGesture()} replays whole stream, so with <code>-prof gc</code> its
+ * <code>gc.alloc.rate.norm</code> is bytes allocated per stream.
+ * <p>
+ * Run with <code>./gradlew :swiper-benchmark:jmh</code>.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class DispatchBenchmark {
+    private static final int EVENTS = 1024;
+
+    @Param( { "1", "4", "32" } )
+    public int actions;
+
+    @Param( { "TAP", "SLOW_DRAG", "FAST_FLING", "CANCELLED_FLING" } )
+    public GestureStream.Type gesture;
+
+    private EngineDispatcher dispatcher;
+    private GestureStream stream;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        dispatcher = new EngineDispatcher( actions );
+        stream = GestureStream.create( gesture );
+        cursor = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( EVENTS )
+    public float perEvent() {
+        final GestureStream s = stream;
+        int c = cursor;
+        for( int i = 0; i < EVENTS; i++ ) {
+            dispatcher.dispatch( s, c );
+            if( ++c == s.size() )
+                c = 0;
+        }
+        cursor = c;
+        return dispatcher.consumed;
+    }
+
+    @Benchmark
+    public float perGesture() {
+        final GestureStream s = stream;
+        for( int i = 0; i < s.size(); i++ )
+            dispatcher.dispatch( s, i );
+        return dispatcher.consumed;
+    }
+}
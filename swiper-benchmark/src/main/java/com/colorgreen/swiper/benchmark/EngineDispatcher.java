@@ -0,0 +1,129 @@
+package com.colorgreen.swiper.benchmark;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.GestureRouter;
+import com.colorgreen.swiper.core.SwipeEngine;
+
+/**
+ * Dispatches stream to engines through {@link GestureRouter}, which routes gestures also in
+ * OnSwipeTouchListener. Samples are passed to engines directly, without MotionEvents. Flings run
+ * in shared {@link AnimationLoop}, frames are driven by the stream.
+ */
+final class EngineDispatcher {
+    private static final float TOUCH_SLOP = 8;
+
+    private final SwipeEngine[] engines;
+    private final GestureRouter router = new GestureRouter();
+    private final AnimationLoop loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+        @Override
+        public void requestFrame() {
+        }
+    } );
+    /** Frame clock, stream times start again on every replay. */
+    private long frameTime;
+
+    /** Sink for listener values, so callbacks can not be optimized out. */
+    float consumed;
+
+    EngineDispatcher( int actions ) {
+        engines = new SwipeEngine[actions];
+        router.setTouchSlop( TOUCH_SLOP );
+
+        for( int i = 0; i < actions; i++ ) {
+            Host host = new Host();
+            engines[i] = new SwipeEngine( host );
+            host.engine = engines[i];
+            // half of actions is vertical, like panels from top and bottom, half horizontal
+            engines[i].setDirection( i % 2 == 0, false );
+            engines[i].setSteps( new float[]{ 0, 300, 600 } );
+            router.add( host );
+        }
+    }
+
+    /**
+     * Dispatches sample at <code>index</code> of the stream to all engines.
+     */
+    void dispatch( GestureStream stream, int index ) {
+        final int action = stream.actions[index];
+        final long time = stream.times[index];
+        final float x = stream.xs[index];
+        final float y = stream.ys[index];
+
+        switch( action ) {
+            case GestureStream.ACTION_DOWN:
+                router.down( 0, x, y );
+                for( int i = 0; i < router.getReceiverCount(); i++ )
+                    engines[router.getReceiver( i )].down( time, x, y );
+                break;
+            case GestureStream.ACTION_MOVE:
+                if( !router.isRouted() && !router.route( time, x, y ) )
+                    break;
+                for( int i = 0; i < router.getReceiverCount(); i++ )
+                    engines[router.getReceiver( i )].move( time, x, y );
+                break;
+            case GestureStream.ACTION_UP:
+                for( int i = 0; i < router.getReceiverCount(); i++ )
+                    engines[router.getReceiver( i )].up( time, x, y );
+                break;
+            case GestureStream.FRAME:
+                frameTime += GestureStream.FRAME_TIME;
+                loop.doFrame( frameTime );
+                break;
+            case GestureStream.SETTLE:
+                while( loop.getActiveCount() > 0 ) {
+                    frameTime += GestureStream.FRAME_TIME;
+                    loop.doFrame( frameTime );
+                }
+                break;
+        }
+    }
+
+    private final class Host implements SwipeEngine.Callback, GestureRouter.Target {
+        SwipeEngine engine;
+
+        @Override
+        public boolean isBlocked() {
+            return false;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return false;
+        }
+
+        @Override
+        public boolean accepts( boolean vertical, float delta ) {
+            return engine.accepts( vertical, delta );
+        }
+
+        @Override
+        public void cancelTouch( long time ) {
+            engine.cancel( time );
+        }
+
+        @Override
+        public void onDragStart( float val, float totalFriction ) {
+            consumed += val;
+        }
+
+        @Override
+        public void onDrag( float val, float totalFriction ) {
+            consumed += totalFriction;
+        }
+
+        @Override
+        public void onDragEnd( float val, float totalFriction ) {
+            consumed += val;
+        }
+
+        @Override
+        public void onFlingStart( float start, float velocity, float min, float max ) {
+            loop.start( engine, engine.getPhysics(), start, engine.getFlingTarget(), velocity, min, max );
+        }
+
+        @Override
+        public void onFlingCancel() {
+            loop.cancel( engine );
+        }
+    }
+}
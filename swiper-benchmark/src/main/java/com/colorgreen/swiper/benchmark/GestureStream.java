@@ -0,0 +1,105 @@
+package com.colorgreen.swiper.benchmark;
+
+/**
+ * Synthetic stream of touch samples and animation frames stored in primitive arrays.
+ * Every stream starts and ends with all actions settled on first step, so it can be replayed
+ * in a loop.
+ */
+public final class GestureStream {
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    /** Animation frame of running flings. */
+    public static final int FRAME = -1;
+    /** Running flings are animated until they reach their target. */
+    public static final int SETTLE = -2;
+
+    public enum Type {TAP, SLOW_DRAG, FAST_FLING, CANCELLED_FLING}
+
+    static final long FRAME_TIME = 16;
+
+    final int[] actions;
+    final long[] times;
+    final float[] xs;
+    final float[] ys;
+    private int size;
+    private long time;
+
+    private GestureStream( int capacity ) {
+        actions = new int[capacity];
+        times = new long[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static GestureStream create( Type type ) {
+        GestureStream s;
+        switch( type ) {
+            case TAP:
+                s = new GestureStream( 8 );
+                s.add( ACTION_DOWN, 8, 200, 500 );
+                s.add( ACTION_UP, 60, 200, 500 );
+                s.add( SETTLE, 0, 0, 0 );
+                return s;
+            case SLOW_DRAG:
+                s = new GestureStream( 128 );
+                s.add( ACTION_DOWN, 8, 200, 500 );
+                for( int i = 1; i <= 50; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 500 + i * 4 );
+                for( int i = 1; i <= 45; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 700 - i * 4 );
+                s.add( ACTION_UP, 8, 200, 520 );
+                s.frames( 6 );
+                return s;
+            case FAST_FLING:
+                s = new GestureStream( 64 );
+                s.add( ACTION_DOWN, 8, 200, 500 );
+                for( int i = 1; i <= 10; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 500 + i * 25 );
+                s.add( ACTION_UP, 8, 200, 750 );
+                s.frames( 8 );
+
+                s.add( ACTION_DOWN, 200, 200, 750 );
+                for( int i = 1; i <= 10; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 750 - i * 25 );
+                s.add( ACTION_UP, 8, 200, 500 );
+                s.frames( 8 );
+                return s;
+            case CANCELLED_FLING:
+                s = new GestureStream( 64 );
+                s.add( ACTION_DOWN, 8, 200, 500 );
+                for( int i = 1; i <= 10; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 500 + i * 20 );
+                s.add( ACTION_UP, 8, 200, 700 );
+                for( int i = 0; i < 3; i++ )
+                    s.add( FRAME, FRAME_TIME, 0, 0 );
+
+                s.add( ACTION_DOWN, 8, 200, 700 );
+                for( int i = 1; i <= 10; i++ )
+                    s.add( ACTION_MOVE, 8, 200, 700 - i * 20 );
+                s.add( ACTION_UP, 8, 200, 500 );
+                s.frames( 8 );
+                return s;
+        }
+        throw new RuntimeException( "Unknown gesture type " + type );
+    }
+
+    private void frames( int count ) {
+        for( int i = 0; i < count; i++ )
+            add( FRAME, FRAME_TIME, 0, 0 );
+        add( SETTLE, FRAME_TIME, 0, 0 );
+    }
+
+    private void add( int action, long dt, float x, float y ) {
+        time += dt;
+        actions[size] = action;
+        times[size] = time;
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+}
@@ -0,0 +1,59 @@
+package com.colorgreen.swiper.benchmark;
+
+import com.colorgreen.swiper.core.ImpulseVelocityEstimator;
+import com.colorgreen.swiper.core.LeastSquaresVelocityEstimator;
+import com.colorgreen.swiper.core.VelocityEstimator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of feeding one gesture ( 20 samples ) to estimator and computing release velocity.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class VelocityEstimatorBenchmark {
+    private static final int SAMPLES = 20;
+
+    @Param( { "LEAST_SQUARES", "IMPULSE" } )
+    public String estimator;
+
+    private VelocityEstimator velocityEstimator;
+    private final long[] times = new long[SAMPLES];
+    private final float[] positions = new float[SAMPLES];
+
+    @Setup
+    public void setUp() {
+        velocityEstimator = estimator.equals( "IMPULSE" ) ? new ImpulseVelocityEstimator() : new LeastSquaresVelocityEstimator();
+
+        // decelerating finger
+        for( int i = 0; i < SAMPLES; i++ ) {
+            times[i] = i * 8;
+            positions[i] = 40 * i - 0.5f * i * i;
+        }
+    }
+
+    @Benchmark
+    public float gesture() {
+        final VelocityEstimator e = velocityEstimator;
+        e.clear();
+        for( int i = 0; i < SAMPLES; i++ )
+            e.addSample( times[i], positions[i] );
+        return e.getVelocity();
+    }
+}
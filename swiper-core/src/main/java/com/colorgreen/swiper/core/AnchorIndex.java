@@ -0,0 +1,163 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Immutable set of 2D anchor points with uniform grid index. Anchors are sorted into cells about
+ * two anchors large, nearest anchor is searched in rings of cells around query point, so only
+ * few anchors are compared even when there are hundreds of them.
+ */
+public final class AnchorIndex {
+
+    private final float[] xs;
+    private final float[] ys;
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+
+    private final float cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] items;
+
+    /**
+     * @param xs x coordinates of anchors
+     * @param ys y coordinates of anchors, the same count as xs
+     */
+    public AnchorIndex( float[] xs, float[] ys ) {
+        if( xs == null || ys == null || xs.length != ys.length )
+            throw new RuntimeException( "Anchors need the same number of x and y coordinates" );
+        if( xs.length == 0 )
+            throw new RuntimeException( "At least one anchor is needed" );
+
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        final int n = xs.length;
+
+        float x0 = xs[0], y0 = ys[0], x1 = xs[0], y1 = ys[0];
+        for( int i = 1; i < n; i++ ) {
+            x0 = Math.min( x0, xs[i] );
+            y0 = Math.min( y0, ys[i] );
+            x1 = Math.max( x1, xs[i] );
+            y1 = Math.max( y1, ys[i] );
+        }
+        minX = x0;
+        minY = y0;
+        maxX = x1;
+        maxY = y1;
+
+        final float width = maxX - minX;
+        final float height = maxY - minY;
+        float cell = (float) Math.sqrt( width * height * 2 / n );
+        if( cell <= 0 || Float.isNaN( cell ) )
+            cell = Math.max( width, height ) * 2 / n;
+        if( cell <= 0 )
+            cell = 1;
+        // not more cells than 4 per anchor, even for thin sets
+        while( ( (long) ( width / cell ) + 1 ) * ( (long) ( height / cell ) + 1 ) > 4L * n )
+            cell *= 2;
+
+        cellSize = cell;
+        cols = (int) ( width / cell ) + 1;
+        rows = (int) ( height / cell ) + 1;
+
+        // counting sort of anchors by cell
+        cellStart = new int[cols * rows + 1];
+        for( int i = 0; i < n; i++ )
+            cellStart[cellOf( i ) + 1]++;
+        for( int c = 0; c < cols * rows; c++ )
+            cellStart[c + 1] += cellStart[c];
+
+        items = new int[n];
+        final int[] fill = new int[cols * rows];
+        for( int i = 0; i < n; i++ ) {
+            final int c = cellOf( i );
+            items[cellStart[c] + fill[c]++] = i;
+        }
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public float getX( int i ) {
+        return xs[i];
+    }
+
+    public float getY( int i ) {
+        return ys[i];
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Point out of bounds of anchors is searched from the first ring of cells which reaches the
+     * grid, so also far landing of fast fling compares only anchors of few cells.
+     *
+     * @return index of anchor nearest to point, the first one if distances are equal
+     */
+    public int nearest( float x, float y ) {
+        // cell of point can be out of grid, long keeps rings of far points from overflow
+        final long cx = (long) Math.floor( ( x - minX ) / cellSize );
+        final long cy = (long) Math.floor( ( y - minY ) / cellSize );
+        final long firstRing = Math.max( Math.max( -cx, cx - cols + 1 ), Math.max( Math.max( -cy, cy - rows + 1 ), 0 ) );
+        final long lastRing = Math.max( Math.max( Math.abs( cx ), Math.abs( cx - cols + 1 ) ),
+                Math.max( Math.abs( cy ), Math.abs( cy - rows + 1 ) ) );
+
+        int best = -1;
+        float bestDist = Float.MAX_VALUE;
+        for( long r = firstRing; r <= lastRing; r++ ) {
+            final int gy0 = (int) Math.max( cy - r, 0 );
+            final int gy1 = (int) Math.min( cy + r, rows - 1 );
+            for( int gy = gy0; gy <= gy1; gy++ ) {
+                // inner rows only have two cells on the ring
+                final boolean edge = gy == cy - r || gy == cy + r;
+                final long step = edge ? 1 : 2 * r;
+                for( long gx = edge ? Math.max( cx - r, 0 ) : cx - r; gx <= cx + r && gx < cols; gx += step ) {
+                    if( gx < 0 )
+                        continue;
+
+                    final int c = gy * cols + (int) gx;
+                    for( int k = cellStart[c]; k < cellStart[c + 1]; k++ ) {
+                        final int i = items[k];
+                        final float dx = xs[i] - x;
+                        final float dy = ys[i] - y;
+                        final float dist = dx * dx + dy * dy;
+                        if( dist < bestDist || ( dist == bestDist && i < best ) ) {
+                            bestDist = dist;
+                            best = i;
+                        }
+                    }
+                }
+            }
+
+            // cells of next rings are at least r cells away from cell of point
+            final float reach = r * cellSize;
+            if( best >= 0 && bestDist <= reach * reach )
+                break;
+        }
+        return best;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private int cellOf( int i ) {
+        final int gx = Math.min( (int) ( ( xs[i] - minX ) / cellSize ), cols - 1 );
+        final int gy = Math.min( (int) ( ( ys[i] - minY ) / cellSize ), rows - 1 );
+        return gy * cols + gx;
+    }
+}
@@ -0,0 +1,268 @@
+package com.colorgreen.swiper.core;
+
+import java.util.Arrays;
+
+/**
+ * One animation loop for flings of all engines. State of every running fling is kept in primitive
+ * arrays, on each frame positions of all flings are computed in one pass and then results are
+ * dispatched to engines in order in which flings were started.
+ * <p>
+ * Motion of fling is given by {@link SwipePhysics} in closed form, so position is sampled at
+ * frame time directly and skipped frames do not change the path. Fling ends when it reaches its
+ * target or its settle time, value is kept in bounds.
+ */
+public class AnimationLoop {
+
+    /**
+     * Source of frames, for example Choreographer.
+     */
+    public interface FrameRequester {
+
+        /**
+         * Requests one call of {@link AnimationLoop#doFrame(long)} on next frame.
+         */
+        void requestFrame();
+    }
+
+    /**
+     * Receiver of fling values, for example {@link SwipeEngine}.
+     */
+    public interface Animated {
+
+        void onFlingUpdate( float value );
+
+        /**
+         * @param canceled true if fling was stopped by {@link #cancel(Animated)} or replaced
+         */
+        void onFlingEnd( float value, boolean canceled );
+    }
+
+    private final FrameRequester frameRequester;
+
+    private Animated[] engines = new Animated[4];
+    private SwipePhysics[] physics = new SwipePhysics[4];
+    private float[] starts = new float[4];
+    private float[] targets = new float[4];
+    private float[] velocities = new float[4];
+    private float[] mins = new float[4];
+    private float[] maxs = new float[4];
+    private float[] settleTimes = new float[4];
+    private long[] startTimes = new long[4];
+    private float[] values = new float[4];
+    private boolean[] ended = new boolean[4];
+    private int count;
+    private int active;
+
+    private boolean frameRequested;
+    private long frames;
+    private long lastFrameNanos;
+    private long totalFrameNanos;
+
+    public AnimationLoop( FrameRequester frameRequester ) {
+        this.frameRequester = frameRequester;
+    }
+
+    /**
+     * Starts fling of engine with {@link DecayPhysics#DEFAULT}, which stops at bound in direction
+     * of velocity. Running fling of the same engine is replaced.
+     */
+    public void start( Animated engine, float start, float velocity, float min, float max ) {
+        start( engine, DecayPhysics.DEFAULT, start, velocity >= 0 ? max : min, velocity, min, max );
+    }
+
+    /**
+     * Starts fling of engine from <code>start</code> to <code>target</code>. Running fling of the
+     * same engine is replaced.
+     *
+     * @param velocity initial velocity in pixels per second, already adjusted with
+     *                 {@link SwipePhysics#reachVelocity(float, float, float)}
+     */
+    public void start( Animated engine, SwipePhysics physics, float start, float target, float velocity, float min, float max ) {
+        int i = indexOf( engine );
+        if( i < 0 ) {
+            if( count == engines.length )
+                grow();
+            i = count++;
+            engines[i] = engine;
+            active++;
+        }
+
+        this.physics[i] = physics;
+        starts[i] = start;
+        targets[i] = target;
+        velocities[i] = velocity;
+        mins[i] = min;
+        maxs[i] = max;
+        settleTimes[i] = physics.settleTime( start, target, velocity );
+        startTimes[i] = -1;
+        values[i] = start;
+        ended[i] = false;
+
+        requestFrame();
+    }
+
+    /**
+     * Stops fling of engine, engine is notified with canceled
+     * {@link Animated#onFlingEnd(float, boolean)}.
+     */
+    public void cancel( Animated engine ) {
+        final int i = indexOf( engine );
+        if( i < 0 )
+            return;
+
+        engines[i] = null;
+        active--;
+        engine.onFlingEnd( values[i], true );
+    }
+
+    public boolean isRunning( Animated engine ) {
+        return indexOf( engine ) >= 0;
+    }
+
+    /**
+     * @return number of running flings
+     */
+    public int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * @return number of frames done since loop was created
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return duration of last frame, physics and callbacks, in nanoseconds
+     */
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public long getTotalFrameNanos() {
+        return totalFrameNanos;
+    }
+
+    /**
+     * Computes all flings at <code>frameTime</code> and dispatches new values. Fling starts on the
+     * first frame after it was requested.
+     *
+     * @param frameTime time of frame in milliseconds
+     */
+    public void doFrame( long frameTime ) {
+        final long begin = System.nanoTime();
+        frameRequested = false;
+        compact();
+
+        final int n = count;
+        for( int i = 0; i < n; i++ ) {
+            if( startTimes[i] < 0 ) {
+                startTimes[i] = frameTime;
+                ended[i] = settleTimes[i] <= 0;
+                values[i] = ended[i] ? clamp( i, physics[i].position( starts[i], targets[i], velocities[i], 0 ) ) : starts[i];
+                continue;
+            }
+
+            float t = Math.max( frameTime - startTimes[i], 0 ) / 1000f;
+            boolean end = false;
+            if( t >= settleTimes[i] ) {
+                t = settleTimes[i];
+                end = true;
+            }
+
+            final float value = clamp( i, physics[i].position( starts[i], targets[i], velocities[i], t ) );
+            // reached or crossed target
+            if( ( value - targets[i] ) * ( targets[i] - starts[i] ) >= 0 )
+                end = true;
+
+            values[i] = value;
+            ended[i] = end;
+        }
+
+        for( int i = 0; i < n; i++ ) {
+            final Animated engine = engines[i];
+            // cancelled or restarted by callback of previous fling
+            if( engine == null || startTimes[i] < 0 )
+                continue;
+
+            if( ended[i] ) {
+                engines[i] = null;
+                active--;
+                engine.onFlingEnd( values[i], false );
+            } else
+                engine.onFlingUpdate( values[i] );
+        }
+
+        frames++;
+        lastFrameNanos = System.nanoTime() - begin;
+        totalFrameNanos += lastFrameNanos;
+
+        if( active > 0 )
+            requestFrame();
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void requestFrame() {
+        if( !frameRequested ) {
+            frameRequested = true;
+            frameRequester.requestFrame();
+        }
+    }
+
+    private float clamp( int i, float value ) {
+        return Math.max( mins[i], Math.min( maxs[i], value ) );
+    }
+
+    private int indexOf( Animated engine ) {
+        for( int i = 0; i < count; i++ )
+            if( engines[i] == engine )
+                return i;
+        return -1;
+    }
+
+    /**
+     * Removes slots of finished flings, keeps order of running ones.
+     */
+    private void compact() {
+        int j = 0;
+        for( int i = 0; i < count; i++ ) {
+            if( engines[i] == null )
+                continue;
+            if( i != j ) {
+                engines[j] = engines[i];
+                physics[j] = physics[i];
+                starts[j] = starts[i];
+                targets[j] = targets[i];
+                velocities[j] = velocities[i];
+                mins[j] = mins[i];
+                maxs[j] = maxs[i];
+                settleTimes[j] = settleTimes[i];
+                startTimes[j] = startTimes[i];
+                values[j] = values[i];
+            }
+            j++;
+        }
+        for( int i = j; i < count; i++ ) {
+            engines[i] = null;
+            physics[i] = null;
+        }
+        count = j;
+    }
+
+    private void grow() {
+        final int size = engines.length * 2;
+        engines = Arrays.copyOf( engines, size );
+        physics = Arrays.copyOf( physics, size );
+        starts = Arrays.copyOf( starts, size );
+        targets = Arrays.copyOf( targets, size );
+        velocities = Arrays.copyOf( velocities, size );
+        mins = Arrays.copyOf( mins, size );
+        maxs = Arrays.copyOf( maxs, size );
+        settleTimes = Arrays.copyOf( settleTimes, size );
+        startTimes = Arrays.copyOf( startTimes, size );
+        values = Arrays.copyOf( values, size );
+        ended = Arrays.copyOf( ended, size );
+    }
+}
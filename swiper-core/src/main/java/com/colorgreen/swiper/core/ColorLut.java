@@ -0,0 +1,170 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Lookup table of ARGB colors for progress from 0 to 1. Gradient is computed once when table is
+ * created, sampling picks nearest entry and does not allocate.
+ */
+public final class ColorLut {
+    public static final int DEFAULT_SIZE = 256;
+
+    /**
+     * Receiver of sampled color.
+     */
+    public interface Target {
+
+        void set( int color );
+    }
+
+    private final int[] colors;
+    private final int last;
+
+    private ColorLut( int[] colors ) {
+        this.colors = colors;
+        this.last = colors.length - 1;
+    }
+
+    /**
+     * Gradient interpolated in HSV space, like Color.colorToHSV and Color.HSVToColor. Alpha is
+     * interpolated linearly.
+     */
+    public static ColorLut hsv( int from, int to ) {
+        return hsv( from, to, DEFAULT_SIZE );
+    }
+
+    public static ColorLut hsv( int from, int to, int size ) {
+        checkSize( size );
+
+        float[] a = new float[3];
+        float[] b = new float[3];
+        float[] hsv = new float[3];
+        colorToHsv( from, a );
+        colorToHsv( to, b );
+
+        int[] colors = new int[size];
+        for( int i = 0; i < size; i++ ) {
+            final float p = i / (float) ( size - 1 );
+            for( int c = 0; c < 3; c++ )
+                hsv[c] = a[c] + ( b[c] - a[c] ) * p;
+            final int alpha = Math.round( ( from >>> 24 ) + ( ( to >>> 24 ) - ( from >>> 24 ) ) * p );
+            colors[i] = ( alpha << 24 ) | ( hsvToColor( hsv ) & 0xFFFFFF );
+        }
+        return new ColorLut( colors );
+    }
+
+    /**
+     * Gradient interpolated linearly in every ARGB channel.
+     */
+    public static ColorLut argb( int from, int to ) {
+        return argb( from, to, DEFAULT_SIZE );
+    }
+
+    public static ColorLut argb( int from, int to, int size ) {
+        checkSize( size );
+
+        int[] colors = new int[size];
+        for( int i = 0; i < size; i++ ) {
+            final float p = i / (float) ( size - 1 );
+            int color = 0;
+            for( int shift = 0; shift < 32; shift += 8 ) {
+                final int a = ( from >>> shift ) & 0xFF;
+                final int b = ( to >>> shift ) & 0xFF;
+                color |= Math.round( a + ( b - a ) * p ) << shift;
+            }
+            colors[i] = color;
+        }
+        return new ColorLut( colors );
+    }
+
+    /**
+     * @param progress value from 0 to 1, values outside are clamped
+     */
+    public int sample( float progress ) {
+        if( !( progress > 0 ) )
+            return colors[0];
+        if( progress >= 1 )
+            return colors[last];
+        return colors[(int) ( progress * last + 0.5f )];
+    }
+
+    public int size() {
+        return colors.length;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private static void checkSize( int size ) {
+        if( size < 2 )
+            throw new RuntimeException( "Table needs at least two entries" );
+    }
+
+    private static void colorToHsv( int color, float[] hsv ) {
+        final int r = ( color >> 16 ) & 0xFF;
+        final int g = ( color >> 8 ) & 0xFF;
+        final int b = color & 0xFF;
+
+        final int max = Math.max( r, Math.max( g, b ) );
+        final int min = Math.min( r, Math.min( g, b ) );
+        final int delta = max - min;
+
+        hsv[2] = max / 255f;
+        if( delta == 0 ) {
+            hsv[0] = hsv[1] = 0;
+            return;
+        }
+
+        hsv[1] = delta / (float) max;
+
+        float h;
+        if( r == max )
+            h = ( g - b ) / (float) delta;
+        else if( g == max )
+            h = 2 + ( b - r ) / (float) delta;
+        else
+            h = 4 + ( r - g ) / (float) delta;
+
+        h *= 60;
+        if( h < 0 )
+            h += 360;
+        hsv[0] = h;
+    }
+
+    private static int hsvToColor( float[] hsv ) {
+        final float s = Math.max( 0, Math.min( 1, hsv[1] ) );
+        final float v = Math.max( 0, Math.min( 1, hsv[2] ) );
+        final int value = Math.round( v * 255 );
+
+        if( s == 0 )
+            return 0xFF000000 | ( value << 16 ) | ( value << 8 ) | value;
+
+        final float hx = ( hsv[0] < 0 || hsv[0] >= 360 ) ? 0 : hsv[0] / 60;
+        final int w = (int) Math.floor( hx );
+        final float f = hx - w;
+
+        final int p = Math.round( ( 1 - s ) * v * 255 );
+        final int q = Math.round( ( 1 - s * f ) * v * 255 );
+        final int t = Math.round( ( 1 - s * ( 1 - f ) ) * v * 255 );
+
+        int r, g, b;
+        switch( w ) {
+            case 0:
+                r = value; g = t; b = p;
+                break;
+            case 1:
+                r = q; g = value; b = p;
+                break;
+            case 2:
+                r = p; g = value; b = t;
+                break;
+            case 3:
+                r = p; g = q; b = value;
+                break;
+            case 4:
+                r = t; g = p; b = value;
+                break;
+            default:
+                r = value; g = p; b = q;
+                break;
+        }
+        return 0xFF000000 | ( r << 16 ) | ( g << 8 ) | b;
+    }
+}
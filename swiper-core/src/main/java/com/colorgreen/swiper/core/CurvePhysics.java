@@ -0,0 +1,67 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Fling of fixed duration along custom curve, like animation with interpolator. Curve maps
+ * progress of time to progress of value, both from 0 to 1. Release velocity does not change the
+ * motion, landing step is projected like with {@link DecayPhysics#DEFAULT}.
+ */
+public final class CurvePhysics implements SwipePhysics {
+
+    private final FloatLut curve;
+    private final float duration;
+    private final float step;
+
+    /**
+     * @param duration duration of fling in milliseconds, positive
+     * @param curve    progress of value for progress of time
+     */
+    public CurvePhysics( long duration, FloatLut curve ) {
+        if( duration <= 0 )
+            throw new RuntimeException( "Duration has to be positive" );
+        this.duration = duration / 1000f;
+        this.curve = curve;
+        this.step = 1f / ( curve.size() - 1 );
+    }
+
+    /**
+     * @param duration duration of fling in milliseconds, positive
+     */
+    public static CurvePhysics of( long duration, FloatLut.Curve curve ) {
+        return new CurvePhysics( duration, FloatLut.of( curve ) );
+    }
+
+    @Override
+    public float project( float start, float velocity ) {
+        return DecayPhysics.DEFAULT.project( start, velocity );
+    }
+
+    @Override
+    public float reachVelocity( float start, float target, float velocity ) {
+        return velocity;
+    }
+
+    @Override
+    public float position( float start, float target, float velocity, float time ) {
+        return start + ( target - start ) * curve.sample( time / duration );
+    }
+
+    /**
+     * Slope of curve between neighbouring entries of its table.
+     */
+    @Override
+    public float velocity( float start, float target, float velocity, float time ) {
+        final float progress = time / duration;
+        if( progress < 0 || progress > 1 )
+            return 0;
+
+        final float from = Math.max( progress - step / 2, 0 );
+        final float to = Math.min( progress + step / 2, 1 );
+        final float slope = ( curve.sample( to ) - curve.sample( from ) ) / ( to - from );
+        return ( target - start ) * slope / duration;
+    }
+
+    @Override
+    public float settleTime( float start, float target, float velocity ) {
+        return start == target ? 0 : duration;
+    }
+}
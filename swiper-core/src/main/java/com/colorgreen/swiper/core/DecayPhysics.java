@@ -0,0 +1,79 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Fling which decays like FlingAnimation: velocity drops exponentially and motion stops when
+ * velocity is below visible threshold or when it reaches target. Release velocity too small to
+ * reach target is raised to the exact velocity with which fling arrives at target.
+ */
+public final class DecayPhysics implements SwipePhysics {
+    public static final float DEFAULT_FRICTION = 4.2f;
+    public static final float VELOCITY_THRESHOLD = 0.75f * 62.5f;
+
+    /**
+     * Decay with friction of FlingAnimation.
+     */
+    public static final DecayPhysics DEFAULT = new DecayPhysics( DEFAULT_FRICTION );
+
+    private final float friction;
+
+    /**
+     * @param friction rate of exponential decay of velocity per second, positive
+     */
+    public DecayPhysics( float friction ) {
+        if( !( friction > 0 ) )
+            throw new RuntimeException( "Friction has to be positive" );
+        this.friction = friction;
+    }
+
+    public float getFriction() {
+        return friction;
+    }
+
+    @Override
+    public float project( float start, float velocity ) {
+        if( Math.abs( velocity ) <= VELOCITY_THRESHOLD )
+            return start;
+        return start + ( velocity - Math.signum( velocity ) * VELOCITY_THRESHOLD ) / friction;
+    }
+
+    @Override
+    public float reachVelocity( float start, float target, float velocity ) {
+        final float distance = target - start;
+        if( distance == 0 )
+            return velocity;
+
+        // fling stops when velocity falls to threshold, exactly at target with this velocity
+        final float needed = distance * friction + Math.signum( distance ) * VELOCITY_THRESHOLD;
+        if( velocity * needed > 0 && Math.abs( velocity ) >= Math.abs( needed ) )
+            return velocity;
+        return needed;
+    }
+
+    @Override
+    public float position( float start, float target, float velocity, float time ) {
+        return start + velocity / friction * ( 1 - (float) Math.exp( -friction * time ) );
+    }
+
+    @Override
+    public float velocity( float start, float target, float velocity, float time ) {
+        return velocity * (float) Math.exp( -friction * time );
+    }
+
+    @Override
+    public float settleTime( float start, float target, float velocity ) {
+        final float speed = Math.abs( velocity );
+        if( speed <= VELOCITY_THRESHOLD )
+            return 0;
+
+        float time = (float) Math.log( speed / VELOCITY_THRESHOLD ) / friction;
+
+        final float distance = target - start;
+        if( distance * velocity > 0 ) {
+            final float left = 1 - distance * friction / velocity;
+            if( left > 0 )
+                time = Math.min( time, (float) -Math.log( left ) / friction );
+        } else if( distance == 0 )
+            time = 0;
+        return time;
+    }
+}
@@ -0,0 +1,252 @@
+package com.colorgreen.swiper.core;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Stream of drag events of one action for consumers which should not run on touch and animation
+ * path, for example analytics or expensive derived state. Every subscription has own bounded
+ * buffer of primitive events and its subscriber is called on its own executor, publishing only
+ * stores event and schedules delivery when there is none pending.
+ * <p>
+ * In {@link Mode#CONFLATE} consecutive drag values which were not delivered yet are replaced by
+ * the latest one, start, end and step events are kept. In {@link Mode#BUFFER} every event is
+ * kept. When buffer is full, the oldest event is dropped and counted.
+ */
+public final class DragStream {
+
+    public enum Mode {CONFLATE, BUFFER}
+
+    public interface Subscriber {
+
+        void onDragStart( float val, float totalFriction );
+
+        void onDrag( float val, float totalFriction );
+
+        void onDragEnd( float val, float totalFriction );
+
+        /**
+         * Drag settled on other step than it started from.
+         */
+        void onStepChanged( int step );
+    }
+
+    private static final byte START = 0;
+    private static final byte DRAG = 1;
+    private static final byte END = 2;
+    private static final byte STEP = 3;
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    /**
+     * @param executor executor on which subscriber is called, for example background thread
+     * @param capacity maximum number of undelivered events
+     */
+    public synchronized Subscription subscribe( Subscriber subscriber, Executor executor, Mode mode, int capacity ) {
+        if( capacity <= 0 )
+            throw new RuntimeException( "Capacity has to be positive" );
+
+        Subscription s = new Subscription( this, subscriber, executor, mode, capacity );
+        Subscription[] result = Arrays.copyOf( subscriptions, subscriptions.length + 1 );
+        result[subscriptions.length] = s;
+        subscriptions = result;
+        return s;
+    }
+
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    public void publishDragStart( float val, float totalFriction ) {
+        publish( START, val, totalFriction, 0 );
+    }
+
+    public void publishDrag( float val, float totalFriction ) {
+        publish( DRAG, val, totalFriction, 0 );
+    }
+
+    public void publishDragEnd( float val, float totalFriction ) {
+        publish( END, val, totalFriction, 0 );
+    }
+
+    public void publishStepChanged( int step ) {
+        publish( STEP, 0, 0, step );
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void publish( byte type, float val, float friction, int step ) {
+        final Subscription[] s = subscriptions;
+        for( int i = 0; i < s.length; i++ )
+            s[i].offer( type, val, friction, step );
+    }
+
+    private synchronized void remove( Subscription subscription ) {
+        int count = 0;
+        for( Subscription s : subscriptions )
+            if( s != subscription )
+                count++;
+
+        Subscription[] result = new Subscription[count];
+        int i = 0;
+        for( Subscription s : subscriptions )
+            if( s != subscription )
+                result[i++] = s;
+        subscriptions = result;
+    }
+
+    /**
+     * Buffer of one subscriber.
+     */
+    public static final class Subscription {
+        private final DragStream stream;
+        private final Subscriber subscriber;
+        private final Executor executor;
+        private final Mode mode;
+
+        private final byte[] types;
+        private final float[] values;
+        private final float[] frictions;
+        private final int[] steps;
+        private int start;
+        private int size;
+        private boolean scheduled;
+        private long dropped;
+        private volatile boolean canceled;
+
+        // copy of buffer delivered outside of lock, used only by executor
+        private final byte[] drainTypes;
+        private final float[] drainValues;
+        private final float[] drainFrictions;
+        private final int[] drainSteps;
+
+        private final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                deliver();
+            }
+        };
+
+        private Subscription( DragStream stream, Subscriber subscriber, Executor executor, Mode mode, int capacity ) {
+            this.stream = stream;
+            this.subscriber = subscriber;
+            this.executor = executor;
+            this.mode = mode;
+            types = new byte[capacity];
+            values = new float[capacity];
+            frictions = new float[capacity];
+            steps = new int[capacity];
+            drainTypes = new byte[capacity];
+            drainValues = new float[capacity];
+            drainFrictions = new float[capacity];
+            drainSteps = new int[capacity];
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public int getCapacity() {
+            return types.length;
+        }
+
+        /**
+         * @return number of events dropped because buffer was full
+         */
+        public synchronized long getDroppedCount() {
+            return dropped;
+        }
+
+        /**
+         * Stops delivery, events which were not delivered yet are discarded.
+         */
+        public void cancel() {
+            canceled = true;
+            stream.remove( this );
+        }
+
+        /**
+         * Delivers events until buffer is empty. Drain stays scheduled meanwhile, so it never runs
+         * twice at once, even on executor with more threads.
+         */
+        private void deliver() {
+            while( true ) {
+                final int count;
+                synchronized( this ) {
+                    count = size;
+                    if( count == 0 || canceled ) {
+                        scheduled = false;
+                        return;
+                    }
+
+                    for( int i = 0; i < count; i++ ) {
+                        final int j = ( start + i ) % types.length;
+                        drainTypes[i] = types[j];
+                        drainValues[i] = values[j];
+                        drainFrictions[i] = frictions[j];
+                        drainSteps[i] = steps[j];
+                    }
+                    start = size = 0;
+                }
+
+                try {
+                    dispatch( count );
+                } catch( RuntimeException e ) {
+                    synchronized( this ) {
+                        scheduled = false;
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        private void dispatch( int count ) {
+            for( int i = 0; i < count && !canceled; i++ ) {
+                switch( drainTypes[i] ) {
+                    case START:
+                        subscriber.onDragStart( drainValues[i], drainFrictions[i] );
+                        break;
+                    case DRAG:
+                        subscriber.onDrag( drainValues[i], drainFrictions[i] );
+                        break;
+                    case END:
+                        subscriber.onDragEnd( drainValues[i], drainFrictions[i] );
+                        break;
+                    case STEP:
+                        subscriber.onStepChanged( drainSteps[i] );
+                        break;
+                }
+            }
+        }
+
+        private void offer( byte type, float val, float friction, int step ) {
+            final boolean schedule;
+            synchronized( this ) {
+                final int last = size > 0 ? ( start + size - 1 ) % types.length : -1;
+                int i;
+                if( mode == Mode.CONFLATE && type == DRAG && last >= 0 && types[last] == DRAG )
+                    i = last;
+                else {
+                    if( size == types.length ) {
+                        start = ( start + 1 ) % types.length;
+                        size--;
+                        dropped++;
+                    }
+                    i = ( start + size ) % types.length;
+                    size++;
+                }
+
+                types[i] = type;
+                values[i] = val;
+                frictions[i] = friction;
+                steps[i] = step;
+
+                schedule = !scheduled;
+                scheduled = true;
+            }
+
+            if( schedule )
+                executor.execute( drain );
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Lookup table of float values for progress from 0 to 1, for example total friction of swipe.
+ * Values are computed once when table is created, sampling is linear interpolation between two
+ * entries and does not allocate.
+ */
+public final class FloatLut {
+    public static final int DEFAULT_SIZE = 256;
+
+    /**
+     * Function which is sampled into table.
+     */
+    public interface Curve {
+
+        float valueAt( float progress );
+    }
+
+    /**
+     * Receiver of sampled value.
+     */
+    public interface Target {
+
+        void set( float value );
+    }
+
+    private final float[] values;
+    private final int last;
+
+    private FloatLut( float[] values ) {
+        this.values = values;
+        this.last = values.length - 1;
+    }
+
+    public static FloatLut linear( final float from, final float to ) {
+        return of( new Curve() {
+            @Override
+            public float valueAt( float progress ) {
+                return from + ( to - from ) * progress;
+            }
+        }, 2 );
+    }
+
+    public static FloatLut of( Curve curve ) {
+        return of( curve, DEFAULT_SIZE );
+    }
+
+    /**
+     * @param size number of entries, at least 2
+     */
+    public static FloatLut of( Curve curve, int size ) {
+        if( size < 2 )
+            throw new RuntimeException( "Table needs at least two entries" );
+
+        float[] values = new float[size];
+        for( int i = 0; i < size; i++ )
+            values[i] = curve.valueAt( i / (float) ( size - 1 ) );
+        return new FloatLut( values );
+    }
+
+    /**
+     * @param progress value from 0 to 1, values outside are clamped
+     */
+    public float sample( float progress ) {
+        if( !( progress > 0 ) )
+            return values[0];
+        if( progress >= 1 )
+            return values[last];
+
+        final float position = progress * last;
+        final int i = (int) position;
+        final float fraction = position - i;
+        return values[i] + ( values[i + 1] - values[i] ) * fraction;
+    }
+
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,192 @@
+package com.colorgreen.swiper.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Ring buffer of touch samples with bounded memory. Every sample keeps action, pointer id, time
+ * and raw coordinates of one pointer in primitive arrays, when buffer is full oldest samples are
+ * overwritten. Recording does not allocate.
+ * <p>
+ * Actions are masked MotionEvent actions. Event with more pointers is recorded as one sample per
+ * pointer in order of pointer index, samples after the first one have {@link #SAME_EVENT} flag.
+ * Pointer which went down or up in ACTION_POINTER_DOWN or ACTION_POINTER_UP has
+ * {@link #ACTION_POINTER} flag. Historical samples of event are recorded before it with
+ * {@link #HISTORICAL} flag, so events can be rebuilt with the same batches.
+ * <p>
+ * Binary format written by {@link #writeTo(OutputStream)}: magic, version, sample count and then
+ * for every sample action byte, pointer id byte, time delta from previous sample as int, x and y
+ * as floats.
+ */
+public final class GestureRecorder {
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+    public static final int ACTION_POINTER_DOWN = 5;
+    public static final int ACTION_POINTER_UP = 6;
+    /** Mask of action without flags. */
+    public static final int ACTION_MASK = 0x1F;
+    /** Flag of sample which is historical sample of next recorded event. */
+    public static final int HISTORICAL = 0x80;
+    /** Flag of sample which is another pointer of the same event as previous sample. */
+    public static final int SAME_EVENT = 0x40;
+    /** Flag of sample of pointer which went down or up. */
+    public static final int ACTION_POINTER = 0x20;
+
+    private static final int MAGIC = 0x53574752;
+    private static final int VERSION = 1;
+
+    private final byte[] actions;
+    private final byte[] pointerIds;
+    private final long[] times;
+    private final float[] xs;
+    private final float[] ys;
+    private int start;
+    private int size;
+
+    /**
+     * @param capacity maximum number of samples, every sample takes 18 bytes
+     */
+    public GestureRecorder( int capacity ) {
+        if( capacity <= 0 )
+            throw new RuntimeException( "Capacity has to be positive" );
+
+        actions = new byte[capacity];
+        pointerIds = new byte[capacity];
+        times = new long[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+    }
+
+    /**
+     * Records sample of pointer 0.
+     */
+    public void record( int action, long time, float x, float y ) {
+        record( action, 0, time, x, y );
+    }
+
+    /**
+     * @param action    masked action with flags
+     * @param pointerId id of pointer, at most 127
+     */
+    public void record( int action, int pointerId, long time, float x, float y ) {
+        int i = start + size;
+        if( size == actions.length )
+            start = ( start + 1 ) % actions.length;
+        else
+            size++;
+        i %= actions.length;
+
+        actions[i] = (byte) action;
+        pointerIds[i] = (byte) pointerId;
+        times[i] = time;
+        xs[i] = x;
+        ys[i] = y;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return actions.length;
+    }
+
+    public void clear() {
+        start = size = 0;
+    }
+
+    /**
+     * @param i index of sample, 0 is the oldest
+     * @return masked action with flags
+     */
+    public int getAction( int i ) {
+        return actions[index( i )] & 0xFF;
+    }
+
+    public int getPointerId( int i ) {
+        return pointerIds[index( i )];
+    }
+
+    public long getTime( int i ) {
+        return times[index( i )];
+    }
+
+    public float getX( int i ) {
+        return xs[index( i )];
+    }
+
+    public float getY( int i ) {
+        return ys[index( i )];
+    }
+
+    /**
+     * @return index of first ACTION_DOWN, samples before it belong to gesture which was partially
+     * overwritten. Returns size if there is no complete gesture.
+     */
+    public int getFirstGesture() {
+        for( int i = 0; i < size; i++ )
+            if( getAction( i ) == ACTION_DOWN )
+                return i;
+        return size;
+    }
+
+    /**
+     * Writes samples from first complete gesture.
+     */
+    public void writeTo( OutputStream stream ) throws IOException {
+        final DataOutputStream out = new DataOutputStream( stream );
+        final int first = getFirstGesture();
+
+        out.writeInt( MAGIC );
+        out.writeByte( VERSION );
+        out.writeInt( size - first );
+
+        long time = first < size ? getTime( first ) : 0;
+        out.writeLong( time );
+        for( int i = first; i < size; i++ ) {
+            out.writeByte( getAction( i ) );
+            out.writeByte( getPointerId( i ) );
+            out.writeInt( (int) ( getTime( i ) - time ) );
+            out.writeFloat( getX( i ) );
+            out.writeFloat( getY( i ) );
+            time = getTime( i );
+        }
+        out.flush();
+    }
+
+    /**
+     * @return recorder which contains exactly samples from stream
+     */
+    public static GestureRecorder readFrom( InputStream stream ) throws IOException {
+        final DataInputStream in = new DataInputStream( stream );
+        if( in.readInt() != MAGIC )
+            throw new IOException( "Not a gesture recording" );
+        final int version = in.readByte();
+        if( version != VERSION )
+            throw new IOException( "Unsupported recording version " + version );
+
+        final int count = in.readInt();
+        long time = in.readLong();
+        final GestureRecorder recorder = new GestureRecorder( Math.max( count, 1 ) );
+        for( int i = 0; i < count; i++ ) {
+            final int action = in.readByte() & 0xFF;
+            final int pointerId = in.readByte();
+            time += in.readInt();
+            recorder.record( action, pointerId, time, in.readFloat(), in.readFloat() );
+        }
+        return recorder;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private int index( int i ) {
+        if( i < 0 || i >= size )
+            throw new IndexOutOfBoundsException( "Sample " + i + " of " + size );
+        return ( start + i ) % actions.length;
+    }
+}
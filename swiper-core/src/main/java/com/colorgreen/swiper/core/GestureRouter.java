@@ -0,0 +1,199 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Decides which targets receive rest of gesture. ACTION_DOWN goes to every target which is not
+ * suspended nor blocked. When tracked finger moves over touch slop, dominant axis and sign of
+ * movement are resolved and rest of gesture goes only to targets which accept it, other ones are
+ * cancelled.
+ * <p>
+ * Router only keeps indices of targets in order they were added, events are passed to them by
+ * caller. Nothing is allocated after targets are added.
+ */
+public final class GestureRouter {
+
+    public interface Target {
+        boolean isBlocked();
+
+        /**
+         * @return true if target does not receive touches for now, like blocked one, but also
+         * running gesture is taken from it
+         */
+        boolean isSuspended();
+
+        /**
+         * @param vertical true if movement is on Y axis
+         * @param delta    movement of finger on that axis
+         */
+        boolean accepts( boolean vertical, float delta );
+
+        /**
+         * Rest of gesture is routed to other targets.
+         */
+        void cancelTouch( long time );
+    }
+
+    private Target[] targets = new Target[0];
+
+    private int[] enabled = new int[0];
+    private int enabledCount;
+    private int[] touched = new int[0];
+    private int touchedCount;
+    private int[] routed = new int[0];
+    private int routedCount;
+    private boolean isRouted;
+
+    private float touchSlop = -1;
+    private int slopPointerId;
+    private float downX;
+    private float downY;
+
+    /**
+     * Adds target with index of number of already added targets. Running gesture is forgotten.
+     */
+    public void add( Target target ) {
+        final int n = targets.length + 1;
+        final Target[] result = new Target[n];
+        System.arraycopy( targets, 0, result, 0, targets.length );
+        result[n - 1] = target;
+        targets = result;
+
+        enabled = new int[n];
+        touched = new int[n];
+        routed = new int[n];
+        touchedCount = routedCount = 0;
+        isRouted = false;
+        updateEnabled();
+    }
+
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * @param touchSlop distance in pixels after which gesture is routed
+     */
+    public void setTouchSlop( float touchSlop ) {
+        this.touchSlop = touchSlop;
+    }
+
+    /**
+     * @return touch slop, negative if it was not set yet
+     */
+    public float getTouchSlop() {
+        return touchSlop;
+    }
+
+    /**
+     * Starts gesture, targets which receive ACTION_DOWN are then returned by
+     * {@link #getReceiver(int)}.
+     *
+     * @param x position of pointer, the same coordinates have to be passed to
+     *          {@link #route(long, float, float)}
+     */
+    public void down( int pointerId, float x, float y ) {
+        slopPointerId = pointerId;
+        downX = x;
+        downY = y;
+        isRouted = false;
+        routedCount = 0;
+        touchedCount = 0;
+
+        for( int i = 0; i < enabledCount; i++ )
+            if( !targets[enabled[i]].isBlocked() )
+                touched[touchedCount++] = enabled[i];
+    }
+
+    /**
+     * @return id of pointer which is measured against touch slop
+     */
+    public int getSlopPointerId() {
+        return slopPointerId;
+    }
+
+    /**
+     * @param x position of pointer {@link #getSlopPointerId()}
+     * @return true if gesture has been routed now
+     */
+    public boolean route( long time, float x, float y ) {
+        final float dx = x - downX;
+        final float dy = y - downY;
+
+        if( Math.abs( dx ) <= touchSlop && Math.abs( dy ) <= touchSlop )
+            return false;
+
+        final boolean vertical = Math.abs( dy ) > Math.abs( dx );
+        final float delta = vertical ? dy : dx;
+
+        for( int i = 0; i < touchedCount; i++ ) {
+            final int t = touched[i];
+            if( targets[t].accepts( vertical, delta ) )
+                routed[routedCount++] = t;
+            else
+                targets[t].cancelTouch( time );
+        }
+
+        isRouted = true;
+        return true;
+    }
+
+    /**
+     * Pointer which is measured against touch slop went up before gesture was routed, slop is
+     * measured from current position of other pointer.
+     */
+    public void handoffSlop( int pointerId, float x, float y ) {
+        slopPointerId = pointerId;
+        downX = x;
+        downY = y;
+    }
+
+    public boolean isRouted() {
+        return isRouted;
+    }
+
+    /**
+     * @return number of targets which receive events of running gesture
+     */
+    public int getReceiverCount() {
+        return isRouted ? routedCount : touchedCount;
+    }
+
+    /**
+     * @return index of target which receives events of running gesture
+     */
+    public int getReceiver( int i ) {
+        return isRouted ? routed[i] : touched[i];
+    }
+
+    /**
+     * Reads again which targets are suspended, for example after they were grouped.
+     */
+    public void updateEnabled() {
+        enabledCount = 0;
+        for( int i = 0; i < targets.length; i++ )
+            if( !targets[i].isSuspended() )
+                enabled[enabledCount++] = i;
+    }
+
+    /**
+     * Targets which were suspended are cancelled and removed from running gesture.
+     */
+    public void applySuspension( long time ) {
+        updateEnabled();
+
+        for( int i = 0; i < touchedCount; i++ )
+            if( targets[touched[i]].isSuspended() )
+                targets[touched[i]].cancelTouch( time );
+        touchedCount = removeSuspended( touched, touchedCount );
+        routedCount = removeSuspended( routed, routedCount );
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private int removeSuspended( int[] indices, int count ) {
+        int j = 0;
+        for( int i = 0; i < count; i++ )
+            if( !targets[indices[i]].isSuspended() )
+                indices[j++] = indices[i];
+        return j;
+    }
+}
@@ -0,0 +1,43 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Velocity from kinetic energy transferred by finger to dragged object, sample by sample. Follows
+ * impulse strategy of Android VelocityTracker, reacts faster to changes of direction than least
+ * squares.
+ */
+public class ImpulseVelocityEstimator extends WindowVelocityEstimator {
+
+    public ImpulseVelocityEstimator() {
+        this( DEFAULT_CAPACITY, DEFAULT_HORIZON );
+    }
+
+    public ImpulseVelocityEstimator( int capacity, long horizon ) {
+        super( capacity, horizon );
+    }
+
+    @Override
+    protected float computeVelocity( int count ) {
+        if( count == 2 ) {
+            final long dt = time( 1, count ) - time( 0, count );
+            return dt == 0 ? 0 : ( position( 1, count ) - position( 0, count ) ) / dt * 1000;
+        }
+
+        float work = 0;
+        for( int i = 1; i < count; i++ ) {
+            final long dt = time( i, count ) - time( i - 1, count );
+            if( dt == 0 )
+                continue;
+
+            final float previous = kineticEnergyToVelocity( work );
+            final float current = ( position( i, count ) - position( i - 1, count ) ) / dt * 1000;
+            work += ( current - previous ) * Math.abs( current );
+            if( i == 1 )
+                work *= 0.5f;
+        }
+        return kineticEnergyToVelocity( work );
+    }
+
+    private static float kineticEnergyToVelocity( float work ) {
+        return ( work < 0 ? -1 : 1 ) * (float) Math.sqrt( 2 * Math.abs( work ) );
+    }
+}
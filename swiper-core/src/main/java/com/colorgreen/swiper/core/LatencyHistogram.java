@@ -0,0 +1,69 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Histogram of non negative values with buckets by powers of two. Recording does not allocate,
+ * percentiles are upper bounds of buckets, so they are accurate to factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record( long value ) {
+        if( value < 0 )
+            value = 0;
+
+        buckets[BUCKETS - Long.numberOfLeadingZeros( value )]++;
+        count++;
+        sum += value;
+        if( value > max )
+            max = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : sum / (double) count;
+    }
+
+    /**
+     * @param percentile value from 0 to 100
+     * @return upper bound of bucket which contains percentile, but not more than max
+     */
+    public long getPercentile( double percentile ) {
+        if( count == 0 )
+            return 0;
+
+        final long rank = (long) Math.ceil( count * percentile / 100 );
+        long seen = 0;
+        for( int i = 0; i < BUCKETS; i++ ) {
+            seen += buckets[i];
+            if( seen >= rank && seen > 0 )
+                return Math.min( i == 0 ? 0 : ( 1L << i ) - 1, max );
+        }
+        return max;
+    }
+
+    /**
+     * @return number of values in bucket <code>i</code>, bucket 0 counts zeros, bucket i values
+     * from 2^(i-1) to 2^i - 1
+     */
+    public long getBucket( int i ) {
+        return buckets[i];
+    }
+
+    public void reset() {
+        for( int i = 0; i < BUCKETS; i++ )
+            buckets[i] = 0;
+        count = sum = max = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Velocity as slope of line fitted by least squares to samples in window.
+ */
+public class LeastSquaresVelocityEstimator extends WindowVelocityEstimator {
+
+    public LeastSquaresVelocityEstimator() {
+        this( DEFAULT_CAPACITY, DEFAULT_HORIZON );
+    }
+
+    public LeastSquaresVelocityEstimator( int capacity, long horizon ) {
+        super( capacity, horizon );
+    }
+
+    @Override
+    protected float computeVelocity( int count ) {
+        // times relative to newest sample keep sums small
+        final long t0 = time( count - 1, count );
+        final float p0 = position( count - 1, count );
+
+        float st = 0, sp = 0, stt = 0, stp = 0;
+        for( int i = 0; i < count; i++ ) {
+            final float t = time( i, count ) - t0;
+            final float p = position( i, count ) - p0;
+            st += t;
+            sp += p;
+            stt += t * t;
+            stp += t * p;
+        }
+
+        final float denominator = count * stt - st * st;
+        if( denominator == 0 )
+            return 0;
+
+        return ( count * stp - st * sp ) / denominator * 1000;
+    }
+}
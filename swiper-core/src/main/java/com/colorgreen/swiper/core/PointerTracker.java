@@ -0,0 +1,229 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Tracks pointers of one gesture by their ids and decides which of them drives the drag. Every
+ * tracked pointer has small ring of its last samples in primitive arrays, so when drive is handed
+ * to other pointer, velocity can be estimated from its own recent movement at once.
+ * <p>
+ * Capacity is fixed, pointers over it are ignored. Nothing is allocated after construction.
+ */
+public final class PointerTracker {
+    public static final int DEFAULT_POINTERS = 4;
+    public static final int DEFAULT_SAMPLES = 8;
+
+    /**
+     * Which pointer drives the drag when pointers go down and up.
+     */
+    public enum Handoff {
+        /** Pointer which went down first keeps drive, after it goes up the oldest one takes it. */
+        FIRST,
+        /** Pointer which went down last takes drive, after it goes up the newest one takes it. */
+        LATEST
+    }
+
+    private final int samples;
+    private final int[] ids;
+    private final long[] order;
+    private final int[] heads;
+    private final int[] counts;
+    private final long[] times;
+    private final float[] xs;
+    private final float[] ys;
+
+    private Handoff handoff = Handoff.LATEST;
+    private int active = -1;
+    private long sequence;
+
+    public PointerTracker() {
+        this( DEFAULT_POINTERS, DEFAULT_SAMPLES );
+    }
+
+    /**
+     * @param pointers maximum number of tracked pointers
+     * @param samples  number of last samples kept for each pointer
+     */
+    public PointerTracker( int pointers, int samples ) {
+        if( pointers <= 0 || samples <= 0 )
+            throw new RuntimeException( "Tracker needs at least one pointer and one sample" );
+
+        this.samples = samples;
+        ids = new int[pointers];
+        order = new long[pointers];
+        heads = new int[pointers];
+        counts = new int[pointers];
+        times = new long[pointers * samples];
+        xs = new float[pointers * samples];
+        ys = new float[pointers * samples];
+        clear();
+    }
+
+    /**
+     * @param handoff policy of drive, {@link Handoff#LATEST} by default like framework views
+     */
+    public void setHandoff( Handoff handoff ) {
+        this.handoff = handoff;
+    }
+
+    public Handoff getHandoff() {
+        return handoff;
+    }
+
+    public void clear() {
+        for( int i = 0; i < ids.length; i++ )
+            ids[i] = -1;
+        active = -1;
+    }
+
+    /**
+     * Starts gesture with its first pointer, which drives the drag.
+     */
+    public void down( int id, long time, float x, float y ) {
+        clear();
+        active = add( id );
+        addSample( active, time, x, y );
+    }
+
+    /**
+     * @return true if new pointer took drive
+     */
+    public boolean pointerDown( int id, long time, float x, float y ) {
+        final int slot = add( id );
+        if( slot < 0 )
+            return false;
+
+        addSample( slot, time, x, y );
+        if( active >= 0 && handoff == Handoff.FIRST )
+            return false;
+
+        active = slot;
+        return true;
+    }
+
+    public void move( int id, long time, float x, float y ) {
+        final int slot = slotOf( id );
+        if( slot >= 0 )
+            addSample( slot, time, x, y );
+    }
+
+    /**
+     * @return true if pointer drove the drag, then drive is handed to other tracked pointer if
+     * there is some
+     */
+    public boolean pointerUp( int id, long time, float x, float y ) {
+        final int slot = slotOf( id );
+        if( slot < 0 )
+            return false;
+
+        addSample( slot, time, x, y );
+        ids[slot] = -1;
+        if( slot != active )
+            return false;
+
+        active = pick();
+        return true;
+    }
+
+    /**
+     * @return id of pointer which drives the drag, -1 if there is none
+     */
+    public int getActivePointerId() {
+        return active >= 0 ? ids[active] : -1;
+    }
+
+    public int getPointerCount() {
+        int count = 0;
+        for( int i = 0; i < ids.length; i++ )
+            if( ids[i] >= 0 )
+                count++;
+        return count;
+    }
+
+    /**
+     * @return last x of active pointer
+     */
+    public float getX() {
+        return xs[last( active )];
+    }
+
+    /**
+     * @return last y of active pointer
+     */
+    public float getY() {
+        return ys[last( active )];
+    }
+
+    /**
+     * @return number of samples of pointer kept in its ring, 0 if pointer is not tracked
+     */
+    public int getSampleCount( int id ) {
+        final int slot = slotOf( id );
+        return slot >= 0 ? counts[slot] : 0;
+    }
+
+    /**
+     * Passes kept samples of active pointer, oldest first, to estimator.
+     *
+     * @param vertical true if drag is on Y axis
+     */
+    public void fillVelocity( VelocityEstimator estimator, boolean vertical ) {
+        if( active < 0 )
+            return;
+
+        final int count = counts[active];
+        final int base = active * samples;
+        for( int i = 0; i < count; i++ ) {
+            final int j = base + ( heads[active] - count + i + samples ) % samples;
+            estimator.addSample( times[j], vertical ? ys[j] : xs[j] );
+        }
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private int add( int id ) {
+        if( slotOf( id ) >= 0 )
+            return -1;
+
+        for( int i = 0; i < ids.length; i++ ) {
+            if( ids[i] < 0 ) {
+                ids[i] = id;
+                order[i] = sequence++;
+                heads[i] = 0;
+                counts[i] = 0;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int slotOf( int id ) {
+        for( int i = 0; i < ids.length; i++ )
+            if( ids[i] == id )
+                return i;
+        return -1;
+    }
+
+    private int pick() {
+        int best = -1;
+        for( int i = 0; i < ids.length; i++ ) {
+            if( ids[i] < 0 )
+                continue;
+            if( best < 0 || ( handoff == Handoff.FIRST ? order[i] < order[best] : order[i] > order[best] ) )
+                best = i;
+        }
+        return best;
+    }
+
+    private void addSample( int slot, long time, float x, float y ) {
+        final int j = slot * samples + heads[slot];
+        times[j] = time;
+        xs[j] = x;
+        ys[j] = y;
+        heads[slot] = ( heads[slot] + 1 ) % samples;
+        if( counts[slot] < samples )
+            counts[slot]++;
+    }
+
+    private int last( int slot ) {
+        return slot * samples + ( heads[slot] - 1 + samples ) % samples;
+    }
+}
@@ -0,0 +1,129 @@
+package com.colorgreen.swiper.core;
+
+import java.util.Arrays;
+
+/**
+ * Steps declared relative to measured sizes, so they do not have to be computed by hand after
+ * layout. Every step is <code>offset + fraction * size</code>, where size is one of references:
+ * measured view, its parent or anchor, which is size of content for wrap content steps.
+ * <p>
+ * Resolved values are cached in primitive array together with sizes they were resolved for.
+ * {@link #resolve(float, float, float)} returns the same table until some used size changes, so it
+ * can be called on every layout. Instance keeps state of one action, it should not be shared.
+ */
+public final class RelativeSteps {
+    /** Step is <code>offset</code> pixels, fraction is ignored. */
+    public static final int ABSOLUTE = 0;
+    /** Fraction of size of reference view. */
+    public static final int VIEW = 1;
+    /** Fraction of size of parent of reference view. */
+    public static final int PARENT = 2;
+    /** Fraction of measured size of anchor view, 1 for its wrap content size. */
+    public static final int ANCHOR = 3;
+
+    private final int[] references;
+    private final float[] fractions;
+    private final float[] offsets;
+    private final int used;
+
+    private final float[] values;
+    private final float[] sizes = { Float.NaN, Float.NaN, Float.NaN, Float.NaN };
+    private StepTable table;
+
+    /**
+     * @param references reference of every step, {@link #ABSOLUTE}, {@link #VIEW},
+     *                   {@link #PARENT} or {@link #ANCHOR}
+     * @param fractions  part of reference size of every step
+     * @param offsets    pixels added to every step
+     */
+    public RelativeSteps( int[] references, float[] fractions, float[] offsets ) {
+        if( references.length != fractions.length || references.length != offsets.length )
+            throw new RuntimeException( "Every step needs reference, fraction and offset" );
+        if( references.length < 2 )
+            throw new RuntimeException( "There have to be minimum two steps" );
+        int used = 0;
+        for( int reference : references ) {
+            if( reference < ABSOLUTE || reference > ANCHOR )
+                throw new RuntimeException( "Unknown reference " + reference );
+            used |= 1 << reference;
+        }
+        this.used = used;
+
+        this.references = references.clone();
+        this.fractions = fractions.clone();
+        this.offsets = offsets.clone();
+        this.values = new float[references.length];
+    }
+
+    /**
+     * @param fractions steps as parts of size of reference view, for example [ 0, 0.3f, 1 ]
+     */
+    public static RelativeSteps fractions( float... fractions ) {
+        final int[] references = new int[fractions.length];
+        Arrays.fill( references, VIEW );
+        return new RelativeSteps( references, fractions, new float[fractions.length] );
+    }
+
+    public int size() {
+        return references.length;
+    }
+
+    /**
+     * @return true if some step depends on size of <code>reference</code>
+     */
+    public boolean uses( int reference ) {
+        return ( used & 1 << reference ) != 0;
+    }
+
+    /**
+     * @return table resolved last time, null before first resolution
+     */
+    public StepTable getTable() {
+        return table;
+    }
+
+    /**
+     * Resolves steps for sizes on drag axis. Sizes which are not used are ignored.
+     *
+     * @return table of resolved steps, the same instance if resolved values did not change
+     */
+    public StepTable resolve( float view, float parent, float anchor ) {
+        boolean changed = table == null;
+        changed |= update( VIEW, view );
+        changed |= update( PARENT, parent );
+        changed |= update( ANCHOR, anchor );
+        if( !changed )
+            return table;
+
+        boolean moved = table == null;
+        for( int i = 0; i < values.length; i++ ) {
+            final int reference = references[i];
+            final float value = offsets[i] + ( reference == ABSOLUTE ? 0 : fractions[i] * sizes[reference] );
+            moved |= value != values[i];
+            values[i] = value;
+        }
+
+        if( moved ) {
+            try {
+                table = new StepTable( values );
+            } catch( RuntimeException e ) {
+                // resolve again next time
+                Arrays.fill( sizes, Float.NaN );
+                throw e;
+            }
+        }
+        return table;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    /**
+     * @return true if used size changed
+     */
+    private boolean update( int reference, float size ) {
+        if( sizes[reference] == size || !uses( reference ) )
+            return false;
+        sizes[reference] = size;
+        return true;
+    }
+}
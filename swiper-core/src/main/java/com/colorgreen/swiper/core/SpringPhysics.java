@@ -0,0 +1,97 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Critically damped spring pulling value to target: it arrives as fast as possible without
+ * oscillation and keeps release velocity, overshoot is at most one. Landing step is projected
+ * like with {@link DecayPhysics#DEFAULT}, so steps are picked the same way.
+ */
+public final class SpringPhysics implements SwipePhysics {
+    public static final float STIFFNESS_HIGH = 10000f;
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    public static final float STIFFNESS_LOW = 200f;
+
+    /**
+     * Distance from target in pixels under which spring is settled.
+     */
+    public static final float POSITION_THRESHOLD = 0.5f;
+
+    private static final int SETTLE_ITERATIONS = 8;
+
+    private final float stiffness;
+    private final float omega;
+
+    public SpringPhysics() {
+        this( STIFFNESS_MEDIUM );
+    }
+
+    /**
+     * @param stiffness stiffness of spring with unit mass, positive
+     */
+    public SpringPhysics( float stiffness ) {
+        if( !( stiffness > 0 ) )
+            throw new RuntimeException( "Stiffness has to be positive" );
+        this.stiffness = stiffness;
+        this.omega = (float) Math.sqrt( stiffness );
+    }
+
+    public float getStiffness() {
+        return stiffness;
+    }
+
+    @Override
+    public float project( float start, float velocity ) {
+        return DecayPhysics.DEFAULT.project( start, velocity );
+    }
+
+    @Override
+    public float reachVelocity( float start, float target, float velocity ) {
+        return velocity;
+    }
+
+    /**
+     * x(t) = target + ( c1 + c2 t ) e^( -w t ), c1 = start - target, c2 = velocity + w c1
+     */
+    @Override
+    public float position( float start, float target, float velocity, float time ) {
+        final float c1 = start - target;
+        final float c2 = velocity + omega * c1;
+        return target + ( c1 + c2 * time ) * (float) Math.exp( -omega * time );
+    }
+
+    @Override
+    public float velocity( float start, float target, float velocity, float time ) {
+        final float c1 = start - target;
+        final float c2 = velocity + omega * c1;
+        return ( c2 - omega * ( c1 + c2 * time ) ) * (float) Math.exp( -omega * time );
+    }
+
+    /**
+     * Time when envelope ( |c1| + |c2| t ) e^( -w t ) of distance falls under
+     * {@link #POSITION_THRESHOLD}. Equation has no elementary solution, it is solved by fixed
+     * number of Newton steps on its logarithm, which approach the root from later side.
+     */
+    @Override
+    public float settleTime( float start, float target, float velocity ) {
+        final double a = Math.abs( start - target );
+        final double b = Math.abs( velocity + omega * ( start - target ) );
+        if( b == 0 ) {
+            if( a <= POSITION_THRESHOLD )
+                return 0;
+            return (float) ( Math.log( a / POSITION_THRESHOLD ) / omega );
+        }
+
+        // envelope is largest at this time, root is after it
+        double t = Math.max( 1 / omega - a / b, 0 );
+        final double logThreshold = Math.log( POSITION_THRESHOLD );
+        if( Math.log( a + b * t ) - omega * t <= logThreshold )
+            return 0;
+
+        t += 1 / omega;
+        for( int i = 0; i < SETTLE_ITERATIONS; i++ ) {
+            final double g = Math.log( a + b * t ) - omega * t - logThreshold;
+            final double dg = b / ( a + b * t ) - omega;
+            t -= g / dg;
+        }
+        return (float) t;
+    }
+}
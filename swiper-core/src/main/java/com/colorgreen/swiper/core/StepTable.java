@@ -0,0 +1,148 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Validated, immutable set of steps with lookups in O(log n).
+ * <p>
+ * Steps are kept twice: as given and as keys normalized to ascending order ( descending steps
+ * are negated ), so every lookup is a binary search independent of drag direction. Build tables
+ * once and swap them with {@link SwipeEngine#setStepTable(StepTable)}, which does not walk
+ * steps again.
+ */
+public final class StepTable {
+
+    private final float[] steps;
+    private final float[] keys;
+    private final boolean descending;
+
+    /**
+     * @param steps Array in ascending or descending order, minimum two values. Array is copied.
+     */
+    public StepTable( float[] steps ) {
+        if( steps.length < 2 )
+            throw new RuntimeException( "There have to be minimum two steps" );
+
+        if( steps[0] == steps[steps.length - 1] )
+            throw new RuntimeException( "First and last step are the same. See setSteps() documentation for more details" );
+
+        this.steps = steps.clone();
+        this.descending = steps[0] > steps[steps.length - 1];
+        this.keys = new float[steps.length];
+
+        for( int i = 0; i < steps.length; i++ ) {
+            keys[i] = descending ? -steps[i] : steps[i];
+            if( i > 0 && keys[i - 1] > keys[i] )
+                throw new RuntimeException( "Steps values have to be in ascending or descending order" );
+        }
+    }
+
+    public int size() {
+        return steps.length;
+    }
+
+    public float get( int index ) {
+        return steps[index];
+    }
+
+    /**
+     * @return position of step in ascending order, see {@link #normalize(float)}
+     */
+    public float getKey( int index ) {
+        return keys[index];
+    }
+
+    public float getFirst() {
+        return steps[0];
+    }
+
+    public float getLast() {
+        return steps[steps.length - 1];
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Maps value to space of keys, where steps are ascending.
+     */
+    public float normalize( float value ) {
+        return descending ? -value : value;
+    }
+
+    /**
+     * @return copy of steps in original order
+     */
+    public float[] toArray() {
+        return steps.clone();
+    }
+
+    /**
+     * @return index of step closest to <code>value</code>
+     */
+    public int nearest( float value ) {
+        final float key = normalize( value );
+        final int i = lowerBound( key );
+        if( i == keys.length )
+            return i - 1;
+        if( i == 0 )
+            return 0;
+        return key - keys[i - 1] <= keys[i] - key ? i - 1 : i;
+    }
+
+    /**
+     * @return index of first step after <code>value</code> in drag direction, or last index if
+     * there is no such step
+     */
+    public int next( float value ) {
+        final int i = upperBound( normalize( value ) );
+        return i == keys.length ? i - 1 : i;
+    }
+
+    /**
+     * @return index of last step before <code>value</code> in drag direction, or 0 if there is no
+     * such step
+     */
+    public int previous( float value ) {
+        final int i = lowerBound( normalize( value ) ) - 1;
+        return i < 0 ? 0 : i;
+    }
+
+    /**
+     * @return index of step which differs from <code>value</code> no more than
+     * <code>tolerance</code>, or -1
+     */
+    public int indexOf( float value, float tolerance ) {
+        final int i = nearest( value );
+        return Math.abs( keys[i] - normalize( value ) ) <= tolerance ? i : -1;
+    }
+
+    /**
+     * @return first index which key is not lower than <code>key</code>
+     */
+    private int lowerBound( float key ) {
+        int lo = 0, hi = keys.length;
+        while( lo < hi ) {
+            final int mid = ( lo + hi ) >>> 1;
+            if( keys[mid] < key )
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * @return first index which key is greater than <code>key</code>
+     */
+    private int upperBound( float key ) {
+        int lo = 0, hi = keys.length;
+        while( lo < hi ) {
+            final int mid = ( lo + hi ) >>> 1;
+            if( keys[mid] <= key )
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+}
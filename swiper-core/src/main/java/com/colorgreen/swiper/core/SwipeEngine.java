@@ -0,0 +1,600 @@
+package com.colorgreen.swiper.core;
+
+import java.util.Arrays;
+
+/**
+ * Platform independent part of swipe action. Engine takes primitive touch samples, keeps drag
+ * state and decides position and step to which drag is animated. Engine does not animate itself,
+ * fling is requested from {@link Callback} and its progress is reported back with
+ * {@link #onFlingUpdate(float)} and {@link #onFlingEnd(float, boolean)}.
+ */
+public class SwipeEngine implements AnimationLoop.Animated {
+    /**
+     * @deprecated landing of fling is projected by {@link SwipePhysics#project(float, float)}
+     */
+    @Deprecated
+    public static final float SLOW_FACTOR = 4.5f;
+
+    public interface Callback {
+
+        void onDragStart( float val, float totalFriction );
+
+        void onDrag( float val, float totalFriction );
+
+        void onDragEnd( float val, float totalFriction );
+
+        /**
+         * Start animation of value from <code>start</code> with <code>velocity</code>. Animation
+         * is bounded by <code>min</code> and <code>max</code>.
+         */
+        void onFlingStart( float start, float velocity, float min, float max );
+
+        void onFlingCancel();
+    }
+
+    private boolean vertical = true;
+    private boolean descending = false;
+
+    private StepTable steps;
+    private int csIter = 0;
+    private float dragThreshold = 0.5f;
+    private float currentStep;
+    private float lastPosition;
+    private float startPosition;
+    private float startX;
+    private float startY;
+    private long lastEventTime;
+
+    private float[] batch = new float[16];
+    private int batchCount;
+    private float batchFriction;
+    private boolean batching = false;
+
+    private boolean isDragging = false;
+    private boolean isFlinging = false;
+    private int flingTarget;
+    private float flingStart;
+    private float flingVelocity;
+    private SwipePhysics flingPhysics = DecayPhysics.DEFAULT;
+
+    private SwipePhysics physics = DecayPhysics.DEFAULT;
+
+    private VelocityEstimator velocityEstimator = new LeastSquaresVelocityEstimator();
+
+    private long predictionHorizon;
+    private float displayPosition;
+    private long prevSampleTime;
+    private float prevSample;
+    private long pendingTime = -1;
+    private float pendingValue;
+    private float pendingSaved;
+
+    private SwipeMetrics metrics = SwipeMetrics.NONE;
+    private long flingStartNanos;
+    private int flingFrames;
+
+    private Callback callback;
+
+    public SwipeEngine( Callback callback ) {
+        this.callback = callback;
+    }
+
+    /**
+     * @param vertical   true if drag is on Y axis
+     * @param descending true if steps are in descending order ( directions Left and Up )
+     */
+    public void setDirection( boolean vertical, boolean descending ) {
+        this.vertical = vertical;
+        this.descending = descending;
+        if( this.steps != null )
+            checkSteps( this.steps );
+    }
+
+    public void setSteps( float[] steps ) {
+        setStepTable( new StepTable( steps ) );
+    }
+
+    /**
+     * Swaps steps without walking them again, table only has to match direction.
+     */
+    public void setStepTable( StepTable steps ) {
+        checkSteps( steps );
+        this.steps = steps;
+        if( csIter >= steps.size() )
+            csIter = steps.size() - 1;
+        currentStep = lastPosition = steps.get( csIter );
+    }
+
+    public StepTable getStepTable() {
+        return steps;
+    }
+
+    public void setDragThreshold( float dragThreshold ) {
+        this.dragThreshold = dragThreshold;
+    }
+
+    public float getDragThreshold() {
+        return dragThreshold;
+    }
+
+    /**
+     * @param velocityEstimator estimator of release velocity, default is
+     *                          {@link LeastSquaresVelocityEstimator}
+     */
+    public void setVelocityEstimator( VelocityEstimator velocityEstimator ) {
+        this.velocityEstimator = velocityEstimator;
+    }
+
+    public VelocityEstimator getVelocityEstimator() {
+        return velocityEstimator;
+    }
+
+    /**
+     * @param physics motion of flings, {@link DecayPhysics#DEFAULT} by default. Running fling
+     *                keeps physics with which it started.
+     */
+    public void setPhysics( SwipePhysics physics ) {
+        this.physics = physics != null ? physics : DecayPhysics.DEFAULT;
+    }
+
+    public SwipePhysics getPhysics() {
+        return physics;
+    }
+
+    /**
+     * Reported drag value is extrapolated with current velocity <code>horizon</code> milliseconds
+     * ahead, for example to time when frame will be presented, and clamped to range of steps
+     * around current step. Value kept by engine and used to pick step stays the real position.
+     * Error of predictions is reported to {@link SwipeMetrics#onPrediction(float, float)}.
+     *
+     * @param horizon time of prediction in milliseconds, 0 turns prediction off ( default )
+     */
+    public void setPredictionHorizon( long horizon ) {
+        if( horizon < 0 )
+            throw new RuntimeException( "Prediction horizon can not be negative" );
+        this.predictionHorizon = horizon;
+    }
+
+    public long getPredictionHorizon() {
+        return predictionHorizon;
+    }
+
+    /**
+     * @param metrics receiver of fling and snap back measurements, {@link SwipeMetrics#NONE} by
+     *                default
+     */
+    public void setMetrics( SwipeMetrics metrics ) {
+        this.metrics = metrics != null ? metrics : SwipeMetrics.NONE;
+    }
+
+    public SwipeMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isVertical() {
+        return vertical;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isDragging() {
+        return isDragging;
+    }
+
+    public boolean isFlinging() {
+        return isFlinging;
+    }
+
+    public boolean isExtended() {
+        return csIter > 0;
+    }
+
+    public int getStep() {
+        return csIter;
+    }
+
+    public float getPosition() {
+        return lastPosition;
+    }
+
+    /**
+     * @return step to which running fling is animated
+     */
+    public float getFlingTarget() {
+        return steps.get( flingTarget );
+    }
+
+    /**
+     * @return index of step to which running fling is animated
+     */
+    public int getFlingTargetStep() {
+        return flingTarget;
+    }
+
+    /**
+     * @return value from which running fling started
+     */
+    public float getFlingStart() {
+        return flingStart;
+    }
+
+    /**
+     * @return velocity with which running fling started, in pixels per second
+     */
+    public float getFlingVelocity() {
+        return flingVelocity;
+    }
+
+    /**
+     * @return time in seconds from start of running fling until it settles
+     */
+    public float getFlingDuration() {
+        return flingPhysics.settleTime( flingStart, steps.get( flingTarget ), flingVelocity );
+    }
+
+    /**
+     * Position of running fling at any time, without running it, for example to preview or scrub
+     * animation.
+     *
+     * @param time time from start of fling in seconds
+     */
+    public float getFlingPosition( float time ) {
+        final float target = steps.get( flingTarget );
+        final float value = flingPhysics.position( flingStart, target, flingVelocity, Math.min( time, getFlingDuration() ) );
+        return Math.max( min( currentStep, target, flingStart ), Math.min( max( currentStep, target, flingStart ), value ) );
+    }
+
+    public long getLastEventTime() {
+        return lastEventTime;
+    }
+
+    public float getFriction( float position ) {
+        return Math.abs( ( position - steps.getFirst() ) / ( steps.getLast() - steps.getFirst() ) );
+    }
+
+    public void down( long time, float x, float y ) {
+        lastEventTime = time;
+        velocityEstimator.clear();
+        velocityEstimator.addSample( time, vertical ? y : x );
+        // also animation started by pushToStep() without drag is caught
+        if( isFlinging ) {
+            metrics.onFlingCancel();
+            callback.onFlingCancel();
+        }
+        if( !isDragging ) {
+            callback.onDragStart( currentStep, 0 );
+
+            currentStep = steps.get( csIter );
+            isDragging = true;
+        }
+        // every touch is new anchor, also when previous one did not finish with up
+        startX = x;
+        startY = y;
+        startPosition = lastPosition;
+        displayPosition = lastPosition;
+        prevSampleTime = time;
+        prevSample = lastPosition;
+        pendingTime = -1;
+    }
+
+    public void move( long time, float x, float y ) {
+        lastEventTime = time;
+        velocityEstimator.addSample( time, vertical ? y : x );
+        final float diff = getDiff( x, y ) + startPosition;
+        float friction = getFriction( lastPosition );
+        if( pendingTime >= 0 )
+            checkPrediction( time, diff );
+
+        final int from = csIter == 0 ? 0 : csIter - 1;
+        final int to = csIter + 1 == steps.size() ? csIter : csIter + 1;
+        final float key = steps.normalize( diff );
+
+        boolean iOnDrag = steps.getKey( from ) <= key && key <= steps.getKey( to );
+
+        if( iOnDrag ) {
+            if( batching ) {
+                if( batchCount == batch.length )
+                    batch = Arrays.copyOf( batch, batch.length * 2 );
+                batch[batchCount++] = diff;
+                batchFriction = friction;
+            } else {
+                displayPosition = predictionHorizon > 0 ? predict( time, diff ) : diff;
+                callback.onDrag( displayPosition, friction );
+            }
+            lastPosition = diff;
+        }
+        prevSampleTime = time;
+        prevSample = diff;
+    }
+
+    /**
+     * Continues drag with other pointer, for example when finger which dragged went up while
+     * other one stays. Its position becomes new anchor, so value does not jump, and samples of
+     * previous pointer are dropped from velocity estimator.
+     *
+     * @return true if drag continues, samples of new pointer can be added to estimator then
+     */
+    public boolean handoff( float x, float y ) {
+        if( !isDragging || isFlinging )
+            return false;
+
+        velocityEstimator.clear();
+        startX = x;
+        startY = y;
+        startPosition = lastPosition;
+        displayPosition = lastPosition;
+        prevSample = lastPosition;
+        pendingTime = -1;
+        return true;
+    }
+
+    /**
+     * Starts batch of moves, for example historical samples of one touch event. Until
+     * {@link #endBatch()} accepted positions are collected instead of reported to
+     * {@link Callback#onDrag(float, float)}.
+     */
+    public void beginBatch() {
+        batching = true;
+        batchCount = 0;
+    }
+
+    /**
+     * @return number of accepted positions in {@link #getBatch()}
+     */
+    public int endBatch() {
+        batching = false;
+        if( batchCount > 0 ) {
+            if( predictionHorizon > 0 )
+                batch[batchCount - 1] = predict( lastEventTime, batch[batchCount - 1] );
+            displayPosition = batch[batchCount - 1];
+        }
+        return batchCount;
+    }
+
+    /**
+     * @return positions accepted in last batch, valid up to count returned by {@link #endBatch()}.
+     * Array is reused by next batch.
+     */
+    public float[] getBatch() {
+        return batch;
+    }
+
+    public float getBatchFriction() {
+        return batchFriction;
+    }
+
+    /**
+     * Releases drag with velocity computed by {@link VelocityEstimator}.
+     */
+    public void up( long time, float x, float y ) {
+        velocityEstimator.addSample( time, vertical ? y : x );
+        up( time, x, y, velocityEstimator.getVelocity() );
+    }
+
+    /**
+     * @param velocity velocity on drag axis in pixels per second
+     */
+    public void up( long time, float x, float y, float velocity ) {
+        lastEventTime = time;
+        pendingTime = -1;
+        // continue from position which is on screen
+        if( predictionHorizon > 0 && !isFlinging )
+            lastPosition = displayPosition;
+        final int nextStep = getNextStep( physics.project( lastPosition, velocity ) );
+        checkSnapBack( nextStep );
+
+        pushToStep( nextStep, physics.reachVelocity( lastPosition, steps.get( nextStep ), velocity ) );
+    }
+
+    /**
+     * Ends drag which will not receive more samples, for example when gesture was routed to
+     * another action. Drag which did not move from step is finished in place, otherwise value is
+     * released with zero velocity like on {@link #up(long, float, float, float)}.
+     */
+    public void cancel( long time ) {
+        if( !isDragging || isFlinging )
+            return;
+
+        lastEventTime = time;
+        if( lastPosition == steps.get( csIter ) ) {
+            isDragging = false;
+            callback.onDragEnd( lastPosition, 1 );
+            return;
+        }
+
+        final int nextStep = getNextStep( lastPosition );
+        checkSnapBack( nextStep );
+        pushToStep( nextStep, physics.reachVelocity( lastPosition, steps.get( nextStep ), 0 ) );
+    }
+
+    /**
+     * Finishes drag immediately without animation, for example when action is released. Running
+     * fling ends on its target step, drag without fling on nearest step. Callback receives
+     * onDrag with value of step and onDragEnd, like after finished fling.
+     */
+    public void settle() {
+        if( !isDragging && !isFlinging )
+            return;
+
+        final int step;
+        if( isFlinging ) {
+            step = flingTarget;
+            callback.onFlingCancel();
+            isFlinging = false;
+        } else
+            step = steps.nearest( lastPosition );
+
+        pendingTime = -1;
+        csIter = step;
+        currentStep = lastPosition = steps.get( step );
+        isDragging = false;
+        callback.onDrag( lastPosition, getFriction( lastPosition ) );
+        callback.onDragEnd( lastPosition, 1 );
+    }
+
+    /**
+     * @param vertical true if delta is on Y axis
+     * @param delta    movement of finger on that axis
+     * @return true if movement can change value of this engine
+     */
+    public boolean accepts( boolean vertical, float delta ) {
+        if( vertical != this.vertical || delta == 0 )
+            return false;
+
+        final float forward = descending ? -delta : delta;
+        if( forward > 0 )
+            return lastPosition != steps.getLast();
+        return lastPosition != steps.getFirst();
+    }
+
+    public void pushToStep( int stepIndex ) {
+        pushToStep( stepIndex, physics.reachVelocity( lastPosition, steps.get( stepIndex ), 0 ) );
+    }
+
+    /**
+     * Moves idle engine to step immediately, without animation and callbacks. Used to restore
+     * saved state.
+     */
+    public void setStep( int stepIndex ) {
+        if( isDragging || isFlinging )
+            throw new RuntimeException( "Step can not be set during drag" );
+        if( stepIndex < 0 || stepIndex >= steps.size() )
+            throw new RuntimeException( "Step " + stepIndex + " is out of steps" );
+
+        csIter = stepIndex;
+        currentStep = lastPosition = steps.get( stepIndex );
+    }
+
+    @Override
+    public void onFlingUpdate( float value ) {
+        lastPosition = value;
+        flingFrames++;
+        callback.onDrag( value, getFriction( value ) );
+    }
+
+    @Override
+    public void onFlingEnd( float value, boolean canceled ) {
+        isFlinging = false;
+        lastPosition = value;
+        callback.onDrag( value, getFriction( value ) );
+
+        if( !canceled ) {
+            if( metrics != SwipeMetrics.NONE )
+                metrics.onFlingEnd( System.nanoTime() - flingStartNanos, flingFrames + 1 );
+            csIter = flingTarget;
+            isDragging = false;
+            callback.onDragEnd( steps.get( flingTarget ), 1 );
+        }
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void pushToStep( int stepIndex, float velocity ) {
+        if( isFlinging )
+            callback.onFlingCancel();
+
+        flingTarget = stepIndex;
+        flingStart = lastPosition;
+        flingVelocity = velocity;
+        flingPhysics = physics;
+        isFlinging = true;
+        flingFrames = 0;
+        if( metrics != SwipeMetrics.NONE ) {
+            flingStartNanos = System.nanoTime();
+            metrics.onFlingStart( stepIndex );
+        }
+
+        final float nextStep = steps.get( stepIndex );
+        float _min = min( currentStep, nextStep, lastPosition );
+        float _max = max( currentStep, nextStep, lastPosition );
+
+        callback.onFlingStart( lastPosition, velocity, _min, _max );
+    }
+
+    /**
+     * Released drag which moved, but stays on its step, returns to start position.
+     */
+    private void checkSnapBack( int nextStep ) {
+        if( nextStep == csIter && lastPosition != steps.get( csIter ) )
+            metrics.onSnapBack();
+    }
+
+    /**
+     * @return position extrapolated by prediction horizon, clamped to steps around current step
+     */
+    private float predict( long time, float position ) {
+        final float a = steps.get( csIter == 0 ? 0 : csIter - 1 );
+        final float b = steps.get( csIter + 1 == steps.size() ? csIter : csIter + 1 );
+
+        final float raw = position + velocityEstimator.getVelocity() * predictionHorizon / 1000f;
+        final float predicted = Math.max( Math.min( a, b ), Math.min( Math.max( a, b ), raw ) );
+
+        if( pendingTime < 0 && metrics != SwipeMetrics.NONE ) {
+            pendingTime = time + predictionHorizon;
+            pendingValue = predicted;
+            pendingSaved = raw == position ? 0 : predictionHorizon * ( predicted - position ) / ( raw - position );
+        }
+        return predicted;
+    }
+
+    /**
+     * Compares pending prediction with real position at its time, interpolated between samples.
+     */
+    private void checkPrediction( long time, float position ) {
+        if( time < pendingTime )
+            return;
+
+        float actual = position;
+        if( time > prevSampleTime && pendingTime > prevSampleTime )
+            actual = prevSample + ( position - prevSample ) * ( pendingTime - prevSampleTime ) / ( time - prevSampleTime );
+
+        pendingTime = -1;
+        metrics.onPrediction( pendingSaved, Math.abs( pendingValue - actual ) );
+    }
+
+    private int getNextStep( float position ) {
+        final float key = steps.normalize( position );
+        int nextStep;
+
+        if( csIter + 1 == steps.size() ) {
+            if( key > steps.getKey( csIter ) )
+                nextStep = csIter;
+            else
+                nextStep = csIter - 1;
+
+        } else {
+            if( key < steps.getKey( csIter ) )
+                nextStep = csIter != 0 ? csIter - 1 : csIter;
+            else
+                nextStep = csIter + 1;
+
+        }
+
+        if( steps.getKey( csIter ) != steps.getKey( nextStep )
+                && Math.abs( currentStep - position ) < ( Math.abs( steps.get( nextStep ) - steps.get( csIter ) ) * dragThreshold ) )
+            return csIter;
+
+        return nextStep;
+    }
+
+    private float getDiff( float x, float y ) {
+        if( vertical )
+            return y - startY;
+        return x - startX;
+    }
+
+    private void checkSteps( StepTable steps ) {
+        if( steps.isDescending() != descending )
+            throw new RuntimeException( "Steps values are not correct for this direction" );
+    }
+
+    private static float min( float a, float b, float c ) {
+        return Math.min( Math.min( a, b ), c );
+    }
+
+    private static float max( float a, float b, float c ) {
+        return Math.max( Math.max( a, b ), c );
+    }
+}
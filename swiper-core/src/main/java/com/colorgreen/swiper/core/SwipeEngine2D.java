@@ -0,0 +1,295 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Free drag on both axes which snaps to nearest of 2D anchors, like {@link SwipeEngine} snaps to
+ * steps. On release, landing position is projected from velocity and nearest anchor to it is
+ * found in {@link AnchorIndex}. If drag from current anchor is shorter than threshold part of
+ * distance to that anchor, value returns to current anchor.
+ * <p>
+ * Fling runs straight to target anchor. It is animated as one value, distance travelled from
+ * release position, so it can be driven by {@link AnimationLoop} with {@link SwipePhysics} of
+ * engine.
+ */
+public class SwipeEngine2D implements AnimationLoop.Animated {
+
+    public interface Callback {
+
+        void onDragStart( float x, float y );
+
+        /**
+         * @param frictionX progress on x axis, 0 on leftmost anchor, 1 on rightmost one
+         * @param frictionY progress on y axis, 0 on top anchor, 1 on bottom one
+         */
+        void onDrag( float x, float y, float frictionX, float frictionY );
+
+        void onDragEnd( float x, float y );
+
+        /**
+         * Start animation of distance from <code>start</code> with <code>velocity</code>,
+         * bounded by <code>min</code> and <code>max</code>.
+         */
+        void onFlingStart( float start, float velocity, float min, float max );
+
+        void onFlingCancel();
+    }
+
+    private AnchorIndex anchors;
+    private int anchor;
+    private float dragThreshold = 0.5f;
+
+    private float x;
+    private float y;
+    private float startX;
+    private float startY;
+    private float touchX;
+    private float touchY;
+
+    private boolean isDragging = false;
+    private boolean isFlinging = false;
+    private int flingTarget;
+    private float flingStartX;
+    private float flingStartY;
+    private float flingDirX;
+    private float flingDirY;
+
+    private SwipePhysics physics = DecayPhysics.DEFAULT;
+
+    private VelocityEstimator velocityX = new LeastSquaresVelocityEstimator();
+    private VelocityEstimator velocityY = new LeastSquaresVelocityEstimator();
+
+    private final Callback callback;
+
+    public SwipeEngine2D( Callback callback ) {
+        this.callback = callback;
+    }
+
+    /**
+     * Sets anchors, value is moved to the first anchor.
+     */
+    public void setAnchors( AnchorIndex anchors ) {
+        if( isDragging || isFlinging )
+            throw new RuntimeException( "Anchors can not be changed during drag" );
+
+        this.anchors = anchors;
+        anchor = 0;
+        x = anchors.getX( 0 );
+        y = anchors.getY( 0 );
+    }
+
+    public AnchorIndex getAnchors() {
+        return anchors;
+    }
+
+    public void setDragThreshold( float dragThreshold ) {
+        this.dragThreshold = dragThreshold;
+    }
+
+    public float getDragThreshold() {
+        return dragThreshold;
+    }
+
+    public void setVelocityEstimators( VelocityEstimator velocityX, VelocityEstimator velocityY ) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    /**
+     * @param physics motion of flings and projection of landing on both axes,
+     *                {@link DecayPhysics#DEFAULT} by default
+     */
+    public void setPhysics( SwipePhysics physics ) {
+        this.physics = physics != null ? physics : DecayPhysics.DEFAULT;
+    }
+
+    public SwipePhysics getPhysics() {
+        return physics;
+    }
+
+    public boolean isDragging() {
+        return isDragging;
+    }
+
+    public boolean isFlinging() {
+        return isFlinging;
+    }
+
+    /**
+     * @return index of anchor on which value is settled, or from which it is dragged
+     */
+    public int getAnchor() {
+        return anchor;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getFrictionX( float x ) {
+        final float width = anchors.getMaxX() - anchors.getMinX();
+        return width == 0 ? 0 : ( x - anchors.getMinX() ) / width;
+    }
+
+    public float getFrictionY( float y ) {
+        final float height = anchors.getMaxY() - anchors.getMinY();
+        return height == 0 ? 0 : ( y - anchors.getMinY() ) / height;
+    }
+
+    public void down( long time, float x, float y ) {
+        velocityX.clear();
+        velocityY.clear();
+        velocityX.addSample( time, x );
+        velocityY.addSample( time, y );
+
+        if( isFlinging )
+            callback.onFlingCancel();
+        else if( !isDragging )
+            callback.onDragStart( this.x, this.y );
+
+        isDragging = true;
+        touchX = x;
+        touchY = y;
+        startX = this.x;
+        startY = this.y;
+    }
+
+    /**
+     * Value follows finger, it is kept in bounds of anchors.
+     */
+    public void move( long time, float x, float y ) {
+        velocityX.addSample( time, x );
+        velocityY.addSample( time, y );
+
+        this.x = clamp( startX + x - touchX, anchors.getMinX(), anchors.getMaxX() );
+        this.y = clamp( startY + y - touchY, anchors.getMinY(), anchors.getMaxY() );
+        callback.onDrag( this.x, this.y, getFrictionX( this.x ), getFrictionY( this.y ) );
+    }
+
+    public void up( long time, float x, float y ) {
+        velocityX.addSample( time, x );
+        velocityY.addSample( time, y );
+        up( velocityX.getVelocity(), velocityY.getVelocity() );
+    }
+
+    /**
+     * @param vx velocity on x axis in pixels per second
+     * @param vy velocity on y axis in pixels per second
+     */
+    public void up( float vx, float vy ) {
+        // value stops on bounds of anchors, so landing out of them is snapped like it is there
+        final float landingX = clamp( physics.project( x, vx ), anchors.getMinX(), anchors.getMaxX() );
+        final float landingY = clamp( physics.project( y, vy ), anchors.getMinY(), anchors.getMaxY() );
+        int target = anchors.nearest( landingX, landingY );
+
+        if( target != anchor ) {
+            final float dragged = distance( x, y, anchors.getX( anchor ), anchors.getY( anchor ) );
+            final float span = distance( anchors.getX( target ), anchors.getY( target ), anchors.getX( anchor ), anchors.getY( anchor ) );
+            if( dragged < span * dragThreshold )
+                target = anchor;
+        }
+
+        pushToAnchor( target, vx, vy );
+    }
+
+    /**
+     * Ends drag which will not receive more samples, for example when touch was cancelled. Value
+     * is released with zero velocity.
+     */
+    public void cancel() {
+        if( !isDragging || isFlinging )
+            return;
+
+        up( 0, 0 );
+    }
+
+    /**
+     * Finishes drag immediately without animation, for example when action is released. Running
+     * fling ends on its target anchor, drag without fling on nearest anchor. Callback receives
+     * onDrag with position of anchor and onDragEnd.
+     */
+    public void settle() {
+        if( !isDragging )
+            return;
+
+        final int target;
+        if( isFlinging ) {
+            target = flingTarget;
+            callback.onFlingCancel();
+            isFlinging = false;
+        } else
+            target = anchors.nearest( x, y );
+
+        x = anchors.getX( target );
+        y = anchors.getY( target );
+        callback.onDrag( x, y, getFrictionX( x ), getFrictionY( y ) );
+        settleOn( target );
+    }
+
+    public void pushToAnchor( int index ) {
+        pushToAnchor( index, 0, 0 );
+    }
+
+    @Override
+    public void onFlingUpdate( float value ) {
+        x = flingStartX + flingDirX * value;
+        y = flingStartY + flingDirY * value;
+        callback.onDrag( x, y, getFrictionX( x ), getFrictionY( y ) );
+    }
+
+    @Override
+    public void onFlingEnd( float value, boolean canceled ) {
+        isFlinging = false;
+        onFlingUpdate( value );
+
+        if( !canceled )
+            settleOn( flingTarget );
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void pushToAnchor( int index, float vx, float vy ) {
+        if( isFlinging )
+            callback.onFlingCancel();
+
+        final float tx = anchors.getX( index );
+        final float ty = anchors.getY( index );
+        final float length = distance( x, y, tx, ty );
+        if( length == 0 ) {
+            settleOn( index );
+            return;
+        }
+
+        flingTarget = index;
+        flingStartX = x;
+        flingStartY = y;
+        flingDirX = ( tx - x ) / length;
+        flingDirY = ( ty - y ) / length;
+        isDragging = true;
+        isFlinging = true;
+
+        // velocity towards target, at least enough to reach it, like on one axis
+        final float velocity = physics.reachVelocity( 0, length, vx * flingDirX + vy * flingDirY );
+        callback.onFlingStart( 0, velocity, 0, length );
+    }
+
+    private void settleOn( int index ) {
+        anchor = index;
+        x = anchors.getX( index );
+        y = anchors.getY( index );
+        isDragging = false;
+        callback.onDragEnd( x, y );
+    }
+
+    private static float distance( float x0, float y0, float x1, float y1 ) {
+        final float dx = x1 - x0;
+        final float dy = y1 - y0;
+        return (float) Math.sqrt( dx * dx + dy * dy );
+    }
+
+    private static float clamp( float value, float min, float max ) {
+        return Math.max( min, Math.min( max, value ) );
+    }
+}
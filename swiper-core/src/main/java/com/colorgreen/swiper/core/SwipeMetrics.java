@@ -0,0 +1,78 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Receiver of runtime measurements of swipe actions. Methods are called on thread which handles
+ * touches, they should only record values. When {@link #NONE} is used, nothing is measured.
+ *
+ * @see SwipeMetricsCollector
+ */
+public interface SwipeMetrics {
+
+    SwipeMetrics NONE = new SwipeMetrics() {
+        @Override
+        public void onTouchEvent( long durationNanos ) {}
+
+        @Override
+        public void onInputLatency( long latencyMillis ) {}
+
+        @Override
+        public void onCallback( long durationNanos ) {}
+
+        @Override
+        public void onFlingStart( int targetStep ) {}
+
+        @Override
+        public void onFlingCancel() {}
+
+        @Override
+        public void onSnapBack() {}
+
+        @Override
+        public void onFlingEnd( long durationNanos, int frames ) {}
+
+        @Override
+        public void onPrediction( float savedMillis, float errorPixels ) {}
+    };
+
+    /**
+     * @param durationNanos time of handling one touch event by all actions
+     */
+    void onTouchEvent( long durationNanos );
+
+    /**
+     * @param latencyMillis time from touch event to end of listener callbacks it caused
+     */
+    void onInputLatency( long latencyMillis );
+
+    /**
+     * @param durationNanos time of one drag update in listener and bindings
+     */
+    void onCallback( long durationNanos );
+
+    void onFlingStart( int targetStep );
+
+    /**
+     * Running fling was stopped by new touch.
+     */
+    void onFlingCancel();
+
+    /**
+     * Drag was released below threshold and returns to step where it started.
+     */
+    void onSnapBack();
+
+    /**
+     * @param durationNanos time from fling start to reaching step
+     * @param frames        number of animation frames of fling
+     */
+    void onFlingEnd( long durationNanos, int frames );
+
+    /**
+     * Predicted drag value was compared with real position at time for which it was predicted.
+     *
+     * @param savedMillis part of prediction horizon which was applied, less than horizon when
+     *                    prediction was clamped to steps
+     * @param errorPixels distance between predicted and real position
+     */
+    void onPrediction( float savedMillis, float errorPixels );
+}
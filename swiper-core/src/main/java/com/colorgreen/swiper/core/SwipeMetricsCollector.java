@@ -0,0 +1,124 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * {@link SwipeMetrics} which keeps counters and histograms in memory, so they can be read and
+ * exported periodically. Durations are in nanoseconds, input latency in milliseconds. One
+ * collector can be shared by all actions on the same thread.
+ */
+public class SwipeMetricsCollector implements SwipeMetrics {
+
+    private final LatencyHistogram touchNanos = new LatencyHistogram();
+    private final LatencyHistogram inputLatencyMillis = new LatencyHistogram();
+    private final LatencyHistogram callbackNanos = new LatencyHistogram();
+    private final LatencyHistogram flingNanos = new LatencyHistogram();
+    private final LatencyHistogram flingFrames = new LatencyHistogram();
+    private final LatencyHistogram predictionErrorPixels = new LatencyHistogram();
+
+    private long flings;
+    private long cancelledFlings;
+    private long snapBacks;
+    private double predictionSavedMillis;
+
+    @Override
+    public void onTouchEvent( long durationNanos ) {
+        touchNanos.record( durationNanos );
+    }
+
+    @Override
+    public void onInputLatency( long latencyMillis ) {
+        inputLatencyMillis.record( latencyMillis );
+    }
+
+    @Override
+    public void onCallback( long durationNanos ) {
+        callbackNanos.record( durationNanos );
+    }
+
+    @Override
+    public void onFlingStart( int targetStep ) {
+        flings++;
+    }
+
+    @Override
+    public void onFlingCancel() {
+        cancelledFlings++;
+    }
+
+    @Override
+    public void onSnapBack() {
+        snapBacks++;
+    }
+
+    @Override
+    public void onFlingEnd( long durationNanos, int frames ) {
+        flingNanos.record( durationNanos );
+        flingFrames.record( frames );
+    }
+
+    @Override
+    public void onPrediction( float savedMillis, float errorPixels ) {
+        predictionSavedMillis += savedMillis;
+        predictionErrorPixels.record( Math.round( errorPixels ) );
+    }
+
+    public LatencyHistogram getTouchNanos() {
+        return touchNanos;
+    }
+
+    public LatencyHistogram getInputLatencyMillis() {
+        return inputLatencyMillis;
+    }
+
+    public LatencyHistogram getCallbackNanos() {
+        return callbackNanos;
+    }
+
+    /**
+     * @return time from fling start to settling on step
+     */
+    public LatencyHistogram getFlingNanos() {
+        return flingNanos;
+    }
+
+    public LatencyHistogram getFlingFrames() {
+        return flingFrames;
+    }
+
+    /**
+     * @return distance between predicted and real touch positions, rounded to pixels
+     */
+    public LatencyHistogram getPredictionErrorPixels() {
+        return predictionErrorPixels;
+    }
+
+    /**
+     * @return average latency hidden by prediction, in milliseconds
+     */
+    public double getMeanPredictionSavedMillis() {
+        final long count = predictionErrorPixels.getCount();
+        return count == 0 ? 0 : predictionSavedMillis / count;
+    }
+
+    public long getFlingCount() {
+        return flings;
+    }
+
+    public long getCancelledFlingCount() {
+        return cancelledFlings;
+    }
+
+    public long getSnapBackCount() {
+        return snapBacks;
+    }
+
+    public void reset() {
+        touchNanos.reset();
+        inputLatencyMillis.reset();
+        callbackNanos.reset();
+        flingNanos.reset();
+        flingFrames.reset();
+        predictionErrorPixels.reset();
+        predictionSavedMillis = 0;
+        flings = cancelledFlings = snapBacks = 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Motion of fling from start value towards target. Position, velocity and settle time are
+ * computed in closed form for any time, so fling can be sampled at frame time without stepping,
+ * and landing of fling is known before it runs.
+ * <p>
+ * Implementations have to be stateless, one instance can animate many flings at once.
+ *
+ * @see DecayPhysics
+ * @see SpringPhysics
+ * @see CurvePhysics
+ */
+public interface SwipePhysics {
+
+    /**
+     * @param start    value on release
+     * @param velocity release velocity in pixels per second
+     * @return value at which motion from <code>start</code> would stop without target, used to
+     * pick step on which fling lands
+     */
+    float project( float start, float velocity );
+
+    /**
+     * @param velocity release velocity in pixels per second
+     * @return velocity with which fling to <code>target</code> is started, for example release
+     * velocity raised so that motion reaches target
+     */
+    float reachVelocity( float start, float target, float velocity );
+
+    /**
+     * @param time time from start of fling in seconds
+     */
+    float position( float start, float target, float velocity, float time );
+
+    /**
+     * @param time time from start of fling in seconds
+     * @return velocity in pixels per second
+     */
+    float velocity( float start, float target, float velocity, float time );
+
+    /**
+     * @return time in seconds after which motion is settled, at target or where it stopped
+     */
+    float settleTime( float start, float target, float velocity );
+}
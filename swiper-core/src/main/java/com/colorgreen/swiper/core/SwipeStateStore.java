@@ -0,0 +1,181 @@
+package com.colorgreen.swiper.core;
+
+import java.util.Arrays;
+
+/**
+ * Sparse state of many swipeable items keyed by long id, for example adapter stable id. Keys are
+ * kept sorted in primitive array and found with binary search, like LongSparseArray. Items which
+ * are collapsed on first step and not blocked are not stored at all.
+ * <p>
+ * Store is bounded, when it is full, least recently used item is evicted and returns to default
+ * state. Items which are retained by {@link Retention}, for example visible ones, are never
+ * evicted, store grows over its maximum size when it has no other items. Reads do not change
+ * recency, item is used when it is put or {@link #touch(int)}.
+ */
+public final class SwipeStateStore {
+
+    /**
+     * Decides which items must stay in store when it is full.
+     */
+    public interface Retention {
+
+        boolean retains( long id );
+    }
+
+    private final int maxSize;
+
+    private long[] keys = new long[16];
+    private int[] steps = new int[16];
+    private float[] positions = new float[16];
+    private boolean[] blocked = new boolean[16];
+    private long[] uses = new long[16];
+    private int size;
+    private long clock;
+    private long evicted;
+    private Retention retention;
+
+    /**
+     * @param maxSize maximum number of stored items
+     */
+    public SwipeStateStore( int maxSize ) {
+        if( maxSize <= 0 )
+            throw new RuntimeException( "Store size has to be positive" );
+        this.maxSize = maxSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of items evicted since store was created
+     */
+    public long getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * @param retention items which are never evicted, or null if any item can be evicted
+     */
+    public void setRetention( Retention retention ) {
+        this.retention = retention;
+    }
+
+    /**
+     * @return index of item, or negative value if item has default state
+     */
+    public int indexOf( long id ) {
+        return Arrays.binarySearch( keys, 0, size, id );
+    }
+
+    /**
+     * Marks item as recently used, so it is evicted later.
+     */
+    public void touch( int index ) {
+        uses[index] = ++clock;
+    }
+
+    public long keyAt( int index ) {
+        return keys[index];
+    }
+
+    public int getStep( int index ) {
+        return steps[index];
+    }
+
+    public float getPosition( int index ) {
+        return positions[index];
+    }
+
+    public boolean isBlocked( int index ) {
+        return blocked[index];
+    }
+
+    /**
+     * @param id       id of item
+     * @param step     index of step on which item is settled
+     * @param position value of item
+     * @param blocked  true if item does not accept touches
+     */
+    public void put( long id, int step, float position, boolean blocked ) {
+        int i = Arrays.binarySearch( keys, 0, size, id );
+        if( step == 0 && !blocked ) {
+            if( i >= 0 )
+                removeAt( i );
+            return;
+        }
+
+        if( i < 0 ) {
+            final int lru = size >= maxSize ? leastRecentlyUsed() : -1;
+            if( lru >= 0 ) {
+                removeAt( lru );
+                evicted++;
+                i = Arrays.binarySearch( keys, 0, size, id );
+            }
+            i = insertAt( ~i, id );
+        }
+
+        this.steps[i] = step;
+        this.positions[i] = position;
+        this.blocked[i] = blocked;
+        this.uses[i] = ++clock;
+    }
+
+    public void remove( long id ) {
+        final int i = Arrays.binarySearch( keys, 0, size, id );
+        if( i >= 0 )
+            removeAt( i );
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private int insertAt( int i, long id ) {
+        if( size == keys.length ) {
+            final int capacity = Math.min( keys.length * 2, Math.max( maxSize, keys.length + 1 ) );
+            keys = Arrays.copyOf( keys, capacity );
+            steps = Arrays.copyOf( steps, capacity );
+            positions = Arrays.copyOf( positions, capacity );
+            blocked = Arrays.copyOf( blocked, capacity );
+            uses = Arrays.copyOf( uses, capacity );
+        }
+
+        final int tail = size - i;
+        System.arraycopy( keys, i, keys, i + 1, tail );
+        System.arraycopy( steps, i, steps, i + 1, tail );
+        System.arraycopy( positions, i, positions, i + 1, tail );
+        System.arraycopy( blocked, i, blocked, i + 1, tail );
+        System.arraycopy( uses, i, uses, i + 1, tail );
+        keys[i] = id;
+        size++;
+        return i;
+    }
+
+    private void removeAt( int i ) {
+        final int tail = size - i - 1;
+        System.arraycopy( keys, i + 1, keys, i, tail );
+        System.arraycopy( steps, i + 1, steps, i, tail );
+        System.arraycopy( positions, i + 1, positions, i, tail );
+        System.arraycopy( blocked, i + 1, blocked, i, tail );
+        System.arraycopy( uses, i + 1, uses, i, tail );
+        size--;
+    }
+
+    /**
+     * @return index of least recently used item which is not retained, or -1
+     */
+    private int leastRecentlyUsed() {
+        int lru = -1;
+        for( int i = 0; i < size; i++ )
+            if( ( lru < 0 || uses[i] < uses[lru] ) && ( retention == null || !retention.retains( keys[i] ) ) )
+                lru = i;
+        return lru;
+    }
+}
@@ -0,0 +1,23 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Estimates velocity of finger on drag axis from touch samples.
+ */
+public interface VelocityEstimator {
+
+    /**
+     * Removes all samples, called on start of every gesture.
+     */
+    void clear();
+
+    /**
+     * @param time     time of sample in milliseconds
+     * @param position position on drag axis in pixels
+     */
+    void addSample( long time, float position );
+
+    /**
+     * @return velocity in pixels per second
+     */
+    float getVelocity();
+}
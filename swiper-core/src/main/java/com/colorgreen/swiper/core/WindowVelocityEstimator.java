@@ -0,0 +1,91 @@
+package com.colorgreen.swiper.core;
+
+/**
+ * Base of estimators which keep last samples in primitive ring buffer. Velocity is computed from
+ * samples not older than horizon from newest one. If finger stopped for longer than
+ * {@link #STOP_TIME} older samples are not used.
+ */
+public abstract class WindowVelocityEstimator implements VelocityEstimator {
+    public static final int DEFAULT_CAPACITY = 20;
+    public static final long DEFAULT_HORIZON = 100;
+    public static final long STOP_TIME = 40;
+
+    private final long[] times;
+    private final float[] positions;
+    private final long horizon;
+    private int head;
+    private int size;
+
+    protected WindowVelocityEstimator( int capacity, long horizon ) {
+        if( capacity < 2 )
+            throw new RuntimeException( "Capacity has to be at least 2" );
+
+        this.times = new long[capacity];
+        this.positions = new float[capacity];
+        this.horizon = horizon;
+    }
+
+    @Override
+    public void clear() {
+        head = size = 0;
+    }
+
+    @Override
+    public void addSample( long time, float position ) {
+        times[head] = time;
+        positions[head] = position;
+        head = ( head + 1 ) % times.length;
+        if( size < times.length )
+            size++;
+    }
+
+    @Override
+    public float getVelocity() {
+        final int count = window();
+        return count < 2 ? 0 : computeVelocity( count );
+    }
+
+    /**
+     * @param count number of samples in window, at least 2
+     * @return velocity in pixels per second
+     */
+    protected abstract float computeVelocity( int count );
+
+    /**
+     * @param i index in window of <code>count</code> samples, 0 is the oldest
+     */
+    protected final long time( int i, int count ) {
+        return times[index( i, count )];
+    }
+
+    protected final float position( int i, int count ) {
+        return positions[index( i, count )];
+    }
+
+    /**
+     * @return number of newest samples which can be used for estimation
+     */
+    private int window() {
+        if( size == 0 )
+            return 0;
+
+        final long newest = times[index( 0, 1 )];
+        int count = 1;
+        long previous = newest;
+        while( count < size ) {
+            final long t = times[index( 0, count + 1 )];
+            if( newest - t > horizon || previous - t > STOP_TIME )
+                break;
+            previous = t;
+            count++;
+        }
+        return count;
+    }
+
+    private int index( int i, int count ) {
+        int index = head - count + i;
+        if( index < 0 )
+            index += times.length;
+        return index;
+    }
+}
@@ -0,0 +1,93 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnchorIndexTest {
+
+    @Test
+    public void nearest_matchesBruteForce() {
+        Random random = new Random( 17 );
+        float[] xs = new float[500];
+        float[] ys = new float[500];
+        for( int i = 0; i < xs.length; i++ ) {
+            xs[i] = random.nextFloat() * 1080;
+            ys[i] = random.nextFloat() * 1920;
+        }
+        AnchorIndex index = new AnchorIndex( xs, ys );
+
+        for( int q = 0; q < 2000; q++ ) {
+            float x = random.nextFloat() * 1080;
+            float y = random.nextFloat() * 1920;
+            assertEquals( bruteForce( xs, ys, x, y ), index.nearest( x, y ) );
+        }
+    }
+
+    @Test
+    public void nearest_pointOutside_matchesBruteForce() {
+        Random random = new Random( 17 );
+        float[] xs = new float[500];
+        float[] ys = new float[500];
+        for( int i = 0; i < xs.length; i++ ) {
+            xs[i] = random.nextFloat() * 1080;
+            ys[i] = random.nextFloat() * 1920;
+        }
+        AnchorIndex index = new AnchorIndex( xs, ys );
+
+        for( int q = 0; q < 2000; q++ ) {
+            float x = random.nextFloat() * 5000 - 2000;
+            float y = random.nextFloat() * 8000 - 3000;
+            assertEquals( bruteForce( xs, ys, x, y ), index.nearest( x, y ) );
+        }
+    }
+
+    @Test
+    public void nearest_pointOutside_isNotClampedToBounds() {
+        AnchorIndex index = new AnchorIndex( new float[]{ 0, 1 }, new float[]{ 10, 0 } );
+
+        // after clamping to bounds anchor 1 would be nearer
+        assertEquals( 0, index.nearest( -1000, 0 ) );
+    }
+
+    @Test( timeout = 1000 )
+    public void nearest_farPoint_searchesOnlyGrid() {
+        AnchorIndex index = new AnchorIndex( new float[]{ 0, 1000, 0, 1000 }, new float[]{ 0, 0, 2000, 2000 } );
+
+        assertEquals( 3, index.nearest( 4e9f, 3e9f ) );
+        assertEquals( 0, index.nearest( -4e9f, -1e9f ) );
+        assertEquals( 1, index.nearest( 3e9f, -4e9f ) );
+    }
+
+    @Test
+    public void nearest_collinearAnchors() {
+        AnchorIndex index = new AnchorIndex( new float[]{ 0, 100, 200, 300 }, new float[]{ 50, 50, 50, 50 } );
+
+        assertEquals( 2, index.nearest( 180, -400 ) );
+        assertEquals( 3, index.nearest( 1000, 50 ) );
+    }
+
+    @Test
+    public void nearest_singleAnchor() {
+        AnchorIndex index = new AnchorIndex( new float[]{ 10 }, new float[]{ 10 } );
+
+        assertEquals( 0, index.nearest( -500, 900 ) );
+    }
+
+    private static int bruteForce( float[] xs, float[] ys, float x, float y ) {
+        int best = -1;
+        float bestDist = Float.MAX_VALUE;
+        for( int i = 0; i < xs.length; i++ ) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float dist = dx * dx + dy * dy;
+            if( dist < bestDist ) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
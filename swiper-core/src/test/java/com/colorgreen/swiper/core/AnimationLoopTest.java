@@ -0,0 +1,88 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnimationLoopTest {
+
+    private AnimationLoop loop;
+    private SwipeEngine top;
+    private SwipeEngine bottom;
+    private int frameRequests;
+
+    @Before
+    public void setUp() {
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+                frameRequests++;
+            }
+        } );
+        top = engine( false );
+        bottom = engine( true );
+    }
+
+    @Test
+    public void flingsOfAllEnginesRunInOneLoop() {
+        top.pushToStep( 2 );
+        bottom.pushToStep( 2 );
+        assertEquals( 2, loop.getActiveCount() );
+        assertEquals( 1, frameRequests );
+
+        long time = 0;
+        while( loop.getActiveCount() > 0 && time < 10000 )
+            loop.doFrame( time += 16 );
+
+        assertEquals( 600, top.getPosition(), 0 );
+        assertEquals( -600, bottom.getPosition(), 0 );
+        assertEquals( 2, top.getStep() );
+        assertEquals( 2, bottom.getStep() );
+        assertTrue( loop.getFrameCount() > 2 );
+    }
+
+    @Test
+    public void cancel_stopsOnlyOneFling() {
+        top.pushToStep( 2 );
+        bottom.pushToStep( 2 );
+        loop.doFrame( 0 );
+        loop.doFrame( 16 );
+
+        loop.cancel( top );
+
+        assertFalse( loop.isRunning( top ) );
+        assertTrue( loop.isRunning( bottom ) );
+        assertFalse( top.isFlinging() );
+        assertEquals( 1, loop.getActiveCount() );
+    }
+
+    private SwipeEngine engine( boolean descending ) {
+        final SwipeEngine[] engine = new SwipeEngine[1];
+        engine[0] = new SwipeEngine( new SwipeEngine.Callback() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {}
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
+
+            @Override
+            public void onFlingStart( float start, float velocity, float min, float max ) {
+                loop.start( engine[0], start, velocity, min, max );
+            }
+
+            @Override
+            public void onFlingCancel() {
+                loop.cancel( engine[0] );
+            }
+        } );
+        engine[0].setDirection( true, descending );
+        engine[0].setSteps( descending ? new float[]{ 0, -300, -600 } : new float[]{ 0, 300, 600 } );
+        return engine[0];
+    }
+}
@@ -0,0 +1,104 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+public class DragStreamTest {
+
+    private final List< Runnable > pending = new ArrayList< Runnable >();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute( Runnable command ) {
+            pending.add( command );
+        }
+    };
+    private final StringBuilder log = new StringBuilder();
+    private final DragStream.Subscriber subscriber = new DragStream.Subscriber() {
+        @Override
+        public void onDragStart( float val, float totalFriction ) {
+            log.append( "start " );
+        }
+
+        @Override
+        public void onDrag( float val, float totalFriction ) {
+            log.append( (int) val ).append( ' ' );
+        }
+
+        @Override
+        public void onDragEnd( float val, float totalFriction ) {
+            log.append( "end " );
+        }
+
+        @Override
+        public void onStepChanged( int step ) {
+            log.append( "step" ).append( step ).append( ' ' );
+        }
+    };
+
+    private DragStream stream;
+
+    @Before
+    public void setUp() {
+        stream = new DragStream();
+    }
+
+    @Test
+    public void conflate_keepsLatestDragAndOtherEvents() {
+        stream.subscribe( subscriber, executor, DragStream.Mode.CONFLATE, 8 );
+        publishGesture();
+
+        assertEquals( 1, pending.size() );
+        runPending();
+        assertEquals( "start 30 end step1 ", log.toString() );
+    }
+
+    @Test
+    public void buffer_keepsEveryEvent() {
+        stream.subscribe( subscriber, executor, DragStream.Mode.BUFFER, 8 );
+        publishGesture();
+        runPending();
+
+        assertEquals( "start 10 20 30 end step1 ", log.toString() );
+    }
+
+    @Test
+    public void fullBuffer_dropsOldest() {
+        DragStream.Subscription s = stream.subscribe( subscriber, executor, DragStream.Mode.BUFFER, 3 );
+        publishGesture();
+        runPending();
+
+        assertEquals( "30 end step1 ", log.toString() );
+        assertEquals( 3, s.getDroppedCount() );
+    }
+
+    @Test
+    public void cancel_stopsDelivery() {
+        DragStream.Subscription s = stream.subscribe( subscriber, executor, DragStream.Mode.BUFFER, 8 );
+        publishGesture();
+        s.cancel();
+        stream.publishDrag( 40, 0 );
+        runPending();
+
+        assertEquals( "", log.toString() );
+    }
+
+    private void publishGesture() {
+        stream.publishDragStart( 0, 0 );
+        stream.publishDrag( 10, 0 );
+        stream.publishDrag( 20, 0 );
+        stream.publishDrag( 30, 0 );
+        stream.publishDragEnd( 30, 0.5f );
+        stream.publishStepChanged( 1 );
+    }
+
+    private void runPending() {
+        while( !pending.isEmpty() )
+            pending.remove( 0 ).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class GestureRecorderTest {
+
+    @Test
+    public void full_overwritesOldestSamples() {
+        GestureRecorder recorder = new GestureRecorder( 3 );
+        for( int i = 0; i < 5; i++ )
+            recorder.record( GestureRecorder.ACTION_MOVE, i * 8, i, i * 2 );
+
+        assertEquals( 3, recorder.size() );
+        assertEquals( 16, recorder.getTime( 0 ) );
+        assertEquals( 4, recorder.getX( 2 ), 0 );
+        assertEquals( 8, recorder.getY( 2 ), 0 );
+    }
+
+    @Test
+    public void writeTo_readFrom_keepsCompleteGestures() throws IOException {
+        GestureRecorder recorder = new GestureRecorder( 16 );
+        recorder.record( GestureRecorder.ACTION_UP, 1000, 1, 1 );
+        recorder.record( GestureRecorder.ACTION_DOWN, 2000, 100, 200 );
+        recorder.record( GestureRecorder.ACTION_MOVE | GestureRecorder.HISTORICAL, 2004, 100, 210.5f );
+        recorder.record( GestureRecorder.ACTION_MOVE, 2008, 100, 220 );
+        recorder.record( GestureRecorder.ACTION_UP, 2016, 100, 230 );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo( out );
+        GestureRecorder read = GestureRecorder.readFrom( new ByteArrayInputStream( out.toByteArray() ) );
+
+        assertEquals( 4, read.size() );
+        assertEquals( GestureRecorder.ACTION_DOWN, read.getAction( 0 ) );
+        assertEquals( GestureRecorder.ACTION_MOVE | GestureRecorder.HISTORICAL, read.getAction( 1 ) );
+        assertEquals( 2004, read.getTime( 1 ) );
+        assertEquals( 210.5f, read.getY( 1 ), 0 );
+        assertEquals( 2016, read.getTime( 3 ) );
+    }
+
+    @Test
+    public void writeTo_readFrom_keepsPointersOfEvent() throws IOException {
+        GestureRecorder recorder = new GestureRecorder( 16 );
+        recorder.record( GestureRecorder.ACTION_DOWN, 0, 100, 100, 200 );
+        recorder.record( GestureRecorder.ACTION_POINTER_DOWN, 0, 108, 100, 210 );
+        recorder.record( GestureRecorder.ACTION_POINTER_DOWN | GestureRecorder.SAME_EVENT | GestureRecorder.ACTION_POINTER, 4, 108, 300, 400 );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo( out );
+        GestureRecorder read = GestureRecorder.readFrom( new ByteArrayInputStream( out.toByteArray() ) );
+
+        assertEquals( 3, read.size() );
+        assertEquals( 0, read.getPointerId( 1 ) );
+        assertEquals( 4, read.getPointerId( 2 ) );
+        assertEquals( GestureRecorder.ACTION_POINTER_DOWN, read.getAction( 2 ) & GestureRecorder.ACTION_MASK );
+        assertEquals( GestureRecorder.SAME_EVENT | GestureRecorder.ACTION_POINTER, read.getAction( 2 ) & ~GestureRecorder.ACTION_MASK );
+        assertEquals( 400, read.getY( 2 ), 0 );
+    }
+
+    @Test( expected = IOException.class )
+    public void readFrom_otherData_throws() throws IOException {
+        GestureRecorder.readFrom( new ByteArrayInputStream( new byte[]{ 1, 2, 3, 4, 5 } ) );
+    }
+}
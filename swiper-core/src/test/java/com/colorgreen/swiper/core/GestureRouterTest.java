@@ -0,0 +1,111 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GestureRouterTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private GestureRouter router;
+    private TestTarget down;
+    private TestTarget right;
+
+    @Before
+    public void setUp() {
+        router = new GestureRouter();
+        router.setTouchSlop( 8 );
+        down = new TestTarget( "down", true );
+        right = new TestTarget( "right", false );
+        router.add( down );
+        router.add( right );
+    }
+
+    @Test
+    public void moveInsideSlop_isNotRouted() {
+        router.down( 0, 100, 100 );
+        assertEquals( 2, router.getReceiverCount() );
+
+        assertFalse( router.route( 16, 105, 108 ) );
+        assertFalse( router.isRouted() );
+    }
+
+    @Test
+    public void moveOverSlop_routesByDominantAxis() {
+        router.down( 0, 100, 100 );
+
+        assertTrue( router.route( 16, 110, 150 ) );
+        assertEquals( 1, router.getReceiverCount() );
+        assertEquals( 0, router.getReceiver( 0 ) );
+        assertEquals( "right cancel ", log.toString() );
+    }
+
+    @Test
+    public void blockedTarget_doesNotReceiveGesture() {
+        right.blocked = true;
+        router.down( 0, 100, 100 );
+
+        assertEquals( 1, router.getReceiverCount() );
+        assertEquals( 0, router.getReceiver( 0 ) );
+    }
+
+    @Test
+    public void suspendedTarget_isCancelledAndRemoved() {
+        router.down( 0, 100, 100 );
+        down.suspended = true;
+        router.applySuspension( 16 );
+
+        assertEquals( "down cancel ", log.toString() );
+        assertEquals( 1, router.getReceiverCount() );
+        assertEquals( 1, router.getReceiver( 0 ) );
+
+        router.down( 0, 100, 100 );
+        assertEquals( 1, router.getReceiverCount() );
+    }
+
+    @Test
+    public void handoffSlop_measuresFromOtherPointer() {
+        router.down( 0, 100, 100 );
+        router.handoffSlop( 1, 300, 300 );
+
+        assertEquals( 1, router.getSlopPointerId() );
+        assertFalse( router.route( 16, 305, 305 ) );
+        assertTrue( router.route( 32, 340, 300 ) );
+        assertEquals( 1, router.getReceiver( 0 ) );
+    }
+
+    private final class TestTarget implements GestureRouter.Target {
+        final String name;
+        final boolean vertical;
+        boolean blocked;
+        boolean suspended;
+
+        TestTarget( String name, boolean vertical ) {
+            this.name = name;
+            this.vertical = vertical;
+        }
+
+        @Override
+        public boolean isBlocked() {
+            return blocked;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return suspended;
+        }
+
+        @Override
+        public boolean accepts( boolean vertical, float delta ) {
+            return vertical == this.vertical && delta > 0;
+        }
+
+        @Override
+        public void cancelTouch( long time ) {
+            log.append( name ).append( " cancel " );
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LutTest {
+
+    @Test
+    public void floatLut_interpolatesBetweenEntries() {
+        FloatLut lut = FloatLut.of( new FloatLut.Curve() {
+            @Override
+            public float valueAt( float progress ) {
+                return progress * progress;
+            }
+        } );
+
+        assertEquals( 0, lut.sample( -1 ), 0 );
+        assertEquals( 0.25f, lut.sample( 0.5f ), 1e-4f );
+        assertEquals( 1, lut.sample( 2 ), 0 );
+    }
+
+    @Test
+    public void floatLut_linear() {
+        FloatLut lut = FloatLut.linear( 10, 20 );
+
+        assertEquals( 2, lut.size() );
+        assertEquals( 12.5f, lut.sample( 0.25f ), 1e-4f );
+    }
+
+    @Test
+    public void colorLut_endsAreExact() {
+        ColorLut lut = ColorLut.hsv( 0xFF03A9F4, 0xFF01579B );
+
+        assertEquals( 0xFF03A9F4, lut.sample( 0 ) );
+        assertEquals( 0xFF01579B, lut.sample( 1 ) );
+    }
+
+    @Test
+    public void colorLut_hsvHalfWay() {
+        // hue goes from 0 ( red ) to 240 ( blue ), half way is 120 ( green )
+        ColorLut lut = ColorLut.hsv( 0xFFFF0000, 0xFF0000FF, 3 );
+
+        assertEquals( 0xFF00FF00, lut.sample( 0.5f ) );
+    }
+
+    @Test
+    public void colorLut_argbInterpolatesAlpha() {
+        ColorLut lut = ColorLut.argb( 0x00000000, 0xFFFFFFFF, 3 );
+
+        assertEquals( 0x80808080, lut.sample( 0.5f ) );
+    }
+}
@@ -0,0 +1,67 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PointerTrackerTest {
+
+    private PointerTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new PointerTracker( 2, 4 );
+    }
+
+    @Test
+    public void latest_newPointerTakesDrive() {
+        tracker.down( 0, 0, 0, 0 );
+        assertTrue( tracker.pointerDown( 1, 10, 500, 500 ) );
+        assertEquals( 1, tracker.getActivePointerId() );
+
+        assertTrue( tracker.pointerUp( 1, 20, 500, 520 ) );
+        assertEquals( 0, tracker.getActivePointerId() );
+    }
+
+    @Test
+    public void first_keepsDriveUntilItGoesUp() {
+        tracker.setHandoff( PointerTracker.Handoff.FIRST );
+        tracker.down( 0, 0, 0, 0 );
+        assertFalse( tracker.pointerDown( 1, 10, 500, 500 ) );
+        assertEquals( 0, tracker.getActivePointerId() );
+
+        assertFalse( tracker.pointerUp( 3, 15, 0, 0 ) );
+        assertTrue( tracker.pointerUp( 0, 20, 0, 10 ) );
+        assertEquals( 1, tracker.getActivePointerId() );
+        assertEquals( 500, tracker.getY(), 0 );
+    }
+
+    @Test
+    public void pointersOverCapacity_areIgnored() {
+        tracker.down( 0, 0, 0, 0 );
+        tracker.pointerDown( 1, 10, 0, 0 );
+        assertFalse( tracker.pointerDown( 2, 20, 0, 0 ) );
+        assertEquals( 2, tracker.getPointerCount() );
+        assertEquals( 0, tracker.getSampleCount( 2 ) );
+    }
+
+    @Test
+    public void fillVelocity_usesLastSamplesOfActivePointer() {
+        tracker.setHandoff( PointerTracker.Handoff.FIRST );
+        tracker.down( 0, 0, 0, 0 );
+        tracker.pointerDown( 1, 0, 0, 1000 );
+        for( int i = 1; i <= 6; i++ ) {
+            tracker.move( 0, i * 10, 0, i * 50 );
+            tracker.move( 1, i * 10, 0, 1000 + i * 10 );
+        }
+        tracker.pointerUp( 0, 70, 0, 350 );
+        assertEquals( 4, tracker.getSampleCount( 1 ) );
+
+        final LeastSquaresVelocityEstimator estimator = new LeastSquaresVelocityEstimator();
+        tracker.fillVelocity( estimator, true );
+        assertEquals( 1000, estimator.getVelocity(), 1 );
+    }
+}
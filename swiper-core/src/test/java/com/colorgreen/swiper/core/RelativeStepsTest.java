@@ -0,0 +1,53 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RelativeStepsTest {
+
+    @Test
+    public void fractions_resolveToPartsOfView() {
+        RelativeSteps steps = RelativeSteps.fractions( 0, 0.3f, 1 );
+        assertNull( steps.getTable() );
+
+        StepTable table = steps.resolve( 1000, 0, 0 );
+        assertEquals( 0, table.get( 0 ), 0 );
+        assertEquals( 300, table.get( 1 ), 0 );
+        assertEquals( 1000, table.get( 2 ), 0 );
+    }
+
+    @Test
+    public void mixedReferences_combineOffsetsAndSizes() {
+        RelativeSteps steps = new RelativeSteps(
+                new int[]{ RelativeSteps.ABSOLUTE, RelativeSteps.ANCHOR, RelativeSteps.PARENT },
+                new float[]{ 0, 1, 1 },
+                new float[]{ 56, 56, -24 } );
+
+        StepTable table = steps.resolve( 500, 1920, 400 );
+        assertEquals( 56, table.get( 0 ), 0 );
+        assertEquals( 456, table.get( 1 ), 0 );
+        assertEquals( 1896, table.get( 2 ), 0 );
+    }
+
+    @Test
+    public void unusedOrSameSizes_keepTable() {
+        RelativeSteps steps = RelativeSteps.fractions( 0, 0.5f, 1 );
+        StepTable table = steps.resolve( 800, 0, 0 );
+
+        assertSame( table, steps.resolve( 800, 1200, 300 ) );
+        assertSame( table, steps.resolve( 800, 0, 0 ) );
+
+        StepTable rotated = steps.resolve( 600, 0, 0 );
+        assertNotSame( table, rotated );
+        assertEquals( 300, rotated.get( 1 ), 0 );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void mismatchedArrays_throw() {
+        new RelativeSteps( new int[]{ RelativeSteps.VIEW, RelativeSteps.VIEW }, new float[]{ 0, 1 }, new float[]{ 0 } );
+    }
+}
@@ -0,0 +1,50 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StepTableTest {
+
+    private final StepTable asc = new StepTable( new float[]{ 0, 100, 200, 300 } );
+    private final StepTable desc = new StepTable( new float[]{ 0, -100, -200, -300 } );
+
+    @Test
+    public void order_isDetected() {
+        assertTrue( !asc.isDescending() );
+        assertTrue( desc.isDescending() );
+    }
+
+    @Test
+    public void nearest() {
+        assertEquals( 0, asc.nearest( -50 ) );
+        assertEquals( 1, asc.nearest( 140 ) );
+        assertEquals( 2, asc.nearest( 160 ) );
+        assertEquals( 3, asc.nearest( 1000 ) );
+        assertEquals( 1, desc.nearest( -140 ) );
+        assertEquals( 2, desc.nearest( -160 ) );
+    }
+
+    @Test
+    public void nextAndPrevious_followDragDirection() {
+        assertEquals( 2, asc.next( 100 ) );
+        assertEquals( 0, asc.previous( 100 ) );
+        assertEquals( 3, asc.next( 300 ) );
+        assertEquals( 2, desc.next( -100 ) );
+        assertEquals( 1, desc.previous( -150 ) );
+        assertEquals( 0, desc.previous( 0 ) );
+    }
+
+    @Test
+    public void indexOf_respectsTolerance() {
+        assertEquals( 2, asc.indexOf( 200.4f, 0.5f ) );
+        assertEquals( -1, asc.indexOf( 201, 0.5f ) );
+        assertEquals( 3, desc.indexOf( -300, 0 ) );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void unordered_throws() {
+        new StepTable( new float[]{ 0, 200, 100, 300 } );
+    }
+}
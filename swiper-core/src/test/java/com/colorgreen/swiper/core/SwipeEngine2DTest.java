@@ -0,0 +1,127 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SwipeEngine2DTest {
+
+    private SwipeEngine2D engine;
+    private AnimationLoop loop;
+    private long time;
+    private int dragEnds;
+
+    @Before
+    public void setUp() {
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {}
+        } );
+        engine = new SwipeEngine2D( new SwipeEngine2D.Callback() {
+            @Override
+            public void onDragStart( float x, float y ) {}
+
+            @Override
+            public void onDrag( float x, float y, float frictionX, float frictionY ) {}
+
+            @Override
+            public void onDragEnd( float x, float y ) {
+                dragEnds++;
+            }
+
+            @Override
+            public void onFlingStart( float start, float velocity, float min, float max ) {
+                loop.start( engine, start, velocity, min, max );
+            }
+
+            @Override
+            public void onFlingCancel() {
+                loop.cancel( engine );
+            }
+        } );
+        // corners of screen
+        engine.setAnchors( new AnchorIndex( new float[]{ 0, 1000, 0, 1000 }, new float[]{ 0, 0, 2000, 2000 } ) );
+    }
+
+    @Test
+    public void fling_landsOnProjectedAnchor() {
+        engine.down( 0, 100, 100 );
+        engine.move( 16, 900, 1200 );
+        engine.up( 3000, 4000 );
+        settle();
+
+        assertEquals( 3, engine.getAnchor() );
+        assertEquals( 1000, engine.getX(), 0 );
+        assertEquals( 2000, engine.getY(), 0 );
+        assertFalse( engine.isDragging() );
+    }
+
+    @Test
+    public void landingOutOfBounds_snapsFromBounds() {
+        engine.setAnchors( new AnchorIndex( new float[]{ 0, 100 }, new float[]{ 1000, 0 } ) );
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 50, -900 );
+        // value stops on left bound at y 100, where anchor 1 is nearer
+        engine.up( -100000, 0 );
+        settle();
+
+        assertEquals( 1, engine.getAnchor() );
+    }
+
+    @Test
+    public void shortDrag_returnsToAnchor() {
+        engine.down( 0, 100, 100 );
+        engine.move( 16, 400, 100 );
+        engine.up( 0, 0 );
+        settle();
+
+        assertEquals( 0, engine.getAnchor() );
+        assertEquals( 0, engine.getX(), 0 );
+    }
+
+    @Test
+    public void cancel_releasesWithZeroVelocity() {
+        engine.down( 0, 100, 100 );
+        engine.move( 16, 700, 100 );
+        engine.cancel();
+        settle();
+
+        assertEquals( 1, engine.getAnchor() );
+        assertEquals( 1, dragEnds );
+    }
+
+    @Test
+    public void settle_duringFling_endsOnTarget() {
+        engine.down( 0, 100, 100 );
+        engine.move( 16, 900, 1200 );
+        engine.up( 3000, 4000 );
+        loop.doFrame( time += 16 );
+        engine.settle();
+
+        assertFalse( engine.isDragging() );
+        assertFalse( engine.isFlinging() );
+        assertEquals( 0, loop.getActiveCount() );
+        assertEquals( 3, engine.getAnchor() );
+        assertEquals( 1, dragEnds );
+    }
+
+    @Test
+    public void settle_thenDown_startsFromAnchor() {
+        engine.down( 0, 100, 100 );
+        engine.move( 16, 300, 1600 );
+        engine.settle();
+        assertEquals( 2, engine.getAnchor() );
+
+        engine.down( 100, 500, 500 );
+        engine.move( 116, 550, 450 );
+        assertEquals( 50, engine.getX(), 0 );
+        assertEquals( 1950, engine.getY(), 0 );
+    }
+
+    private void settle() {
+        while( loop.getActiveCount() > 0 )
+            loop.doFrame( time += 16 );
+    }
+}
@@ -0,0 +1,223 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeEngineTest {
+
+    private SwipeEngine engine;
+    private float lastDrag;
+    private float flingStart;
+    private float flingVelocity;
+    private int dragEnds;
+
+    @Before
+    public void setUp() {
+        engine = new SwipeEngine( new SwipeEngine.Callback() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                lastDrag = val;
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {
+                dragEnds++;
+            }
+
+            @Override
+            public void onFlingStart( float start, float velocity, float min, float max ) {
+                flingStart = start;
+                flingVelocity = velocity;
+            }
+
+            @Override
+            public void onFlingCancel() {
+                engine.onFlingEnd( lastDrag, true );
+            }
+        } );
+        engine.setDirection( true, false );
+        engine.setSteps( new float[]{ 0, 300, 600 } );
+    }
+
+    @Test
+    public void move_followsFingerInsideRange() {
+        engine.down( 0, 0, 100 );
+        engine.move( 16, 0, 250 );
+
+        assertEquals( 150, lastDrag, 0 );
+        assertEquals( 150, engine.getPosition(), 0 );
+    }
+
+    @Test
+    public void move_outsideRange_isIgnored() {
+        engine.down( 0, 0, 100 );
+        engine.move( 16, 0, 50 );
+
+        assertEquals( 0, engine.getPosition(), 0 );
+    }
+
+    @Test
+    public void up_aboveThreshold_snapsToNextStep() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 200 );
+        engine.up( 32, 0, 200, 0 );
+
+        assertTrue( engine.isFlinging() );
+        assertEquals( 200, flingStart, 0 );
+        assertTrue( flingVelocity > 0 );
+
+        engine.onFlingEnd( 300, false );
+        assertEquals( 1, engine.getStep() );
+        assertEquals( 1, dragEnds );
+        assertFalse( engine.isDragging() );
+    }
+
+    @Test
+    public void up_belowThreshold_returnsToStep() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 100 );
+        engine.up( 32, 0, 100, 0 );
+
+        assertTrue( flingVelocity < 0 );
+
+        engine.onFlingEnd( 0, false );
+        assertEquals( 0, engine.getStep() );
+    }
+
+    @Test
+    public void batch_collectsAcceptedPositions() {
+        engine.down( 0, 0, 100 );
+        lastDrag = -1;
+
+        engine.beginBatch();
+        engine.move( 4, 0, 120 );
+        engine.move( 8, 0, 50 );
+        engine.move( 12, 0, 160 );
+        int count = engine.endBatch();
+
+        assertEquals( 2, count );
+        assertEquals( 20, engine.getBatch()[0], 0 );
+        assertEquals( 60, engine.getBatch()[1], 0 );
+        assertEquals( 60, engine.getPosition(), 0 );
+        assertEquals( -1, lastDrag, 0 );
+    }
+
+    @Test
+    public void accepts_onlyMovementWhichChangesValue() {
+        assertTrue( engine.accepts( true, 20 ) );
+        assertFalse( engine.accepts( true, -20 ) );
+        assertFalse( engine.accepts( false, 20 ) );
+    }
+
+    @Test
+    public void cancel_withoutMove_endsInPlace() {
+        engine.down( 0, 0, 0 );
+        engine.cancel( 8 );
+
+        assertFalse( engine.isDragging() );
+        assertFalse( engine.isFlinging() );
+        assertEquals( 1, dragEnds );
+    }
+
+    @Test
+    public void prediction_extrapolatesAndClampsToSteps() {
+        engine.setPredictionHorizon( 16 );
+        engine.down( 0, 0, 0 );
+        engine.move( 10, 0, 10 );
+        engine.move( 20, 0, 20 );
+
+        assertEquals( 36, lastDrag, 0.01f );
+        assertEquals( 20, engine.getPosition(), 0 );
+
+        engine.move( 30, 0, 290 );
+        engine.move( 40, 0, 295 );
+        assertEquals( 300, lastDrag, 0 );
+    }
+
+    @Test
+    public void handoff_continuesFromValueWithoutJump() {
+        engine.down( 0, 0, 100 );
+        engine.move( 16, 0, 250 );
+
+        // second finger far away takes drive
+        assertTrue( engine.handoff( 0, 900 ) );
+        engine.move( 32, 0, 920 );
+
+        assertEquals( 170, engine.getPosition(), 0 );
+        assertEquals( 170, lastDrag, 0 );
+    }
+
+    @Test
+    public void settle_duringFling_endsOnTarget() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 200 );
+        engine.up( 32, 0, 200, 0 );
+        engine.settle();
+
+        assertFalse( engine.isDragging() );
+        assertFalse( engine.isFlinging() );
+        assertEquals( 1, engine.getStep() );
+        assertEquals( 300, lastDrag, 0 );
+        assertEquals( 1, dragEnds );
+    }
+
+    @Test
+    public void settle_duringPushedStep_endsOnTarget() {
+        engine.pushToStep( 2 );
+        engine.settle();
+
+        assertFalse( engine.isFlinging() );
+        assertEquals( 2, engine.getStep() );
+        assertEquals( 600, lastDrag, 0 );
+        assertEquals( 1, dragEnds );
+    }
+
+    @Test
+    public void settle_thenDown_startsFromStepWithoutJump() {
+        engine.down( 0, 0, 100 );
+        engine.move( 16, 0, 350 );
+        // released without up, for example when view was detached
+        engine.settle();
+        assertEquals( 1, dragEnds );
+        assertEquals( 1, engine.getStep() );
+
+        engine.down( 100, 0, 700 );
+        engine.move( 116, 0, 720 );
+        assertEquals( 320, lastDrag, 0 );
+    }
+
+    @Test
+    public void down_withoutUp_reanchorsOnNewTouch() {
+        engine.down( 0, 0, 100 );
+        engine.move( 16, 0, 250 );
+        // up of previous touch was lost
+        engine.down( 100, 0, 700 );
+        engine.move( 116, 0, 720 );
+
+        assertEquals( 170, lastDrag, 0 );
+    }
+
+    @Test
+    public void down_onPushedStep_catchesAnimation() {
+        engine.pushToStep( 2 );
+        lastDrag = 120;
+        engine.down( 0, 0, 100 );
+
+        assertFalse( engine.isFlinging() );
+        assertTrue( engine.isDragging() );
+        engine.move( 16, 0, 130 );
+        assertEquals( 150, lastDrag, 0 );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void setSteps_wrongOrder_throws() {
+        engine.setSteps( new float[]{ 600, 300, 0 } );
+    }
+}
@@ -0,0 +1,109 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SwipeMetricsTest {
+
+    private SwipeEngine engine;
+    private SwipeMetricsCollector metrics;
+    private float lastDrag;
+
+    @Before
+    public void setUp() {
+        engine = new SwipeEngine( new SwipeEngine.Callback() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                lastDrag = val;
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
+
+            @Override
+            public void onFlingStart( float start, float velocity, float min, float max ) {}
+
+            @Override
+            public void onFlingCancel() {
+                engine.onFlingEnd( lastDrag, true );
+            }
+        } );
+        engine.setDirection( true, false );
+        engine.setSteps( new float[]{ 0, 300, 600 } );
+
+        metrics = new SwipeMetricsCollector();
+        engine.setMetrics( metrics );
+    }
+
+    @Test
+    public void releaseBelowThreshold_countsSnapBack() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 100 );
+        engine.up( 32, 0, 100, 0 );
+
+        assertEquals( 1, metrics.getSnapBackCount() );
+        assertEquals( 1, metrics.getFlingCount() );
+    }
+
+    @Test
+    public void fling_recordsFramesAndCancel() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 200 );
+        engine.up( 32, 0, 200, 0 );
+        engine.onFlingUpdate( 250 );
+        engine.onFlingEnd( 300, false );
+
+        assertEquals( 0, metrics.getSnapBackCount() );
+        assertEquals( 1, metrics.getFlingFrames().getCount() );
+        assertEquals( 2, metrics.getFlingFrames().getMax() );
+
+        engine.down( 48, 0, 0 );
+        engine.move( 64, 0, 200 );
+        engine.up( 80, 0, 200, 0 );
+        engine.down( 96, 0, 200 );
+
+        assertEquals( 1, metrics.getCancelledFlingCount() );
+    }
+
+    @Test
+    public void settleOfFling_isNotCountedAsCancel() {
+        engine.down( 0, 0, 0 );
+        engine.move( 16, 0, 200 );
+        engine.up( 32, 0, 200, 0 );
+        engine.settle();
+
+        assertEquals( 0, metrics.getCancelledFlingCount() );
+    }
+
+    @Test
+    public void prediction_reportsErrorAtPredictedTime() {
+        engine.setPredictionHorizon( 10 );
+        engine.down( 0, 0, 0 );
+        engine.move( 10, 0, 10 );
+        engine.move( 20, 0, 20 );
+        // exact prediction for time 20, predicted 30 for time 30, finger stopped at 25
+        engine.move( 30, 0, 25 );
+
+        assertEquals( 2, metrics.getPredictionErrorPixels().getCount() );
+        assertEquals( 5, metrics.getPredictionErrorPixels().getMax() );
+        assertEquals( 10, metrics.getMeanPredictionSavedMillis(), 0.01 );
+    }
+
+    @Test
+    public void histogram_percentileIsBucketBound() {
+        LatencyHistogram h = new LatencyHistogram();
+        for( int i = 1; i <= 100; i++ )
+            h.record( i );
+
+        assertEquals( 100, h.getCount() );
+        assertEquals( 50.5, h.getMean(), 0.001 );
+        assertEquals( 63, h.getPercentile( 50 ) );
+        assertEquals( 100, h.getPercentile( 100 ) );
+        assertEquals( 1, h.getBucket( 1 ) );
+    }
+}
@@ -0,0 +1,109 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipePhysicsTest {
+
+    @Test
+    public void decay_reachVelocityLandsExactlyOnTarget() {
+        final DecayPhysics physics = DecayPhysics.DEFAULT;
+        final float velocity = physics.reachVelocity( 100, 400, 0 );
+        final float time = physics.settleTime( 100, 400, velocity );
+
+        assertEquals( 400, physics.position( 100, 400, velocity, time ), 0.01f );
+        assertEquals( 400, physics.project( 100, velocity ), 0.01f );
+        assertEquals( DecayPhysics.VELOCITY_THRESHOLD, physics.velocity( 100, 400, velocity, time ), 0.01f );
+    }
+
+    @Test
+    public void decay_keepsFasterVelocityAndStopsAtTarget() {
+        final DecayPhysics physics = DecayPhysics.DEFAULT;
+        assertEquals( 5000, physics.reachVelocity( 0, 300, 5000 ), 0 );
+        assertTrue( physics.reachVelocity( 0, 300, -5000 ) > 0 );
+
+        final float time = physics.settleTime( 0, 300, 5000 );
+        assertEquals( 300, physics.position( 0, 300, 5000, time ), 0.01f );
+    }
+
+    @Test
+    public void spring_isSettledAtSettleTime() {
+        final SpringPhysics physics = new SpringPhysics();
+        final float time = physics.settleTime( 0, 600, -2000 );
+
+        assertTrue( time > 0 );
+        assertTrue( Math.abs( physics.position( 0, 600, -2000, time ) - 600 ) <= SpringPhysics.POSITION_THRESHOLD );
+        assertTrue( Math.abs( physics.position( 0, 600, -2000, time * 0.8f ) - 600 ) > SpringPhysics.POSITION_THRESHOLD );
+        assertEquals( -2000, physics.velocity( 0, 600, -2000, 0 ), 0.01f );
+    }
+
+    @Test
+    public void curve_followsCurveForDuration() {
+        final CurvePhysics physics = CurvePhysics.of( 200, new FloatLut.Curve() {
+            @Override
+            public float valueAt( float progress ) {
+                return progress * progress;
+            }
+        } );
+
+        assertEquals( 0.2f, physics.settleTime( 0, 100, 0 ), 0 );
+        assertEquals( 25, physics.position( 0, 100, 0, 0.1f ), 0.01f );
+        assertEquals( 100, physics.position( 0, 100, 0, 0.2f ), 0 );
+        // d/dt 100 ( t / 0.2 )^2 at half of duration
+        assertEquals( 500, physics.velocity( 0, 100, 0, 0.1f ), 1f );
+    }
+
+    @Test
+    public void engine_previewsLandingOfFling() {
+        final AnimationLoop loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+        final SwipeEngine[] engine = new SwipeEngine[1];
+        engine[0] = new SwipeEngine( new SwipeEngine.Callback() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {}
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
+
+            @Override
+            public void onFlingStart( float start, float velocity, float min, float max ) {
+                loop.start( engine[0], engine[0].getPhysics(), start, engine[0].getFlingTarget(), velocity, min, max );
+            }
+
+            @Override
+            public void onFlingCancel() {
+                loop.cancel( engine[0] );
+            }
+        } );
+        engine[0].setSteps( new float[]{ 0, 300, 600 } );
+        engine[0].setPhysics( new SpringPhysics() );
+
+        engine[0].down( 0, 0, 0 );
+        engine[0].move( 16, 0, 200 );
+        engine[0].up( 32, 0, 200, 3000 );
+
+        assertEquals( 1, engine[0].getFlingTargetStep() );
+        final float duration = engine[0].getFlingDuration();
+        final long frames = (long) Math.ceil( duration * 1000 / 16 );
+        final float early = engine[0].getFlingPosition( 0.05f );
+
+        loop.doFrame( 0 );
+        loop.doFrame( 50 );
+        assertEquals( early, engine[0].getPosition(), 0.01f );
+
+        for( long time = 50; loop.getActiveCount() > 0; )
+            loop.doFrame( time += 16 );
+
+        assertTrue( loop.getFrameCount() <= frames + 3 );
+        assertEquals( 1, engine[0].getStep() );
+        assertEquals( 300, engine[0].getPosition(), SpringPhysics.POSITION_THRESHOLD );
+    }
+}
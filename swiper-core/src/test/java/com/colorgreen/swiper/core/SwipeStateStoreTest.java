@@ -0,0 +1,83 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeStateStoreTest {
+
+    @Test
+    public void defaultState_isNotStored() {
+        SwipeStateStore store = new SwipeStateStore( 8 );
+        store.put( 5, 1, 300, false );
+        store.put( 5, 0, 0, false );
+
+        assertEquals( 0, store.size() );
+        assertTrue( store.indexOf( 5 ) < 0 );
+    }
+
+    @Test
+    public void keys_areSortedAndFound() {
+        SwipeStateStore store = new SwipeStateStore( 64 );
+        for( long id = 40; id > 0; id -= 2 )
+            store.put( id, 1, id, id % 4 == 0 );
+
+        assertEquals( 20, store.size() );
+        assertEquals( 2, store.keyAt( 0 ) );
+        int i = store.indexOf( 12 );
+        assertEquals( 12, store.getPosition( i ), 0 );
+        assertTrue( store.isBlocked( i ) );
+        assertTrue( store.indexOf( 13 ) < 0 );
+    }
+
+    @Test
+    public void full_evictsLeastRecentlyUsed() {
+        SwipeStateStore store = new SwipeStateStore( 3 );
+        store.put( 1, 1, 300, false );
+        store.put( 2, 1, 300, false );
+        store.put( 3, 1, 300, false );
+        store.touch( store.indexOf( 1 ) );
+        store.put( 4, 2, 600, false );
+
+        assertEquals( 3, store.size() );
+        assertEquals( 1, store.getEvictedCount() );
+        assertTrue( store.indexOf( 2 ) < 0 );
+        assertEquals( 2, store.getStep( store.indexOf( 4 ) ) );
+        assertTrue( store.indexOf( 1 ) >= 0 );
+    }
+
+    @Test
+    public void indexOf_doesNotChangeRecency() {
+        SwipeStateStore store = new SwipeStateStore( 2 );
+        store.put( 1, 1, 300, false );
+        store.put( 2, 1, 300, false );
+        store.indexOf( 1 );
+        store.put( 3, 1, 300, false );
+
+        assertTrue( store.indexOf( 1 ) < 0 );
+        assertTrue( store.indexOf( 2 ) >= 0 );
+    }
+
+    @Test
+    public void retainedItems_areNotEvicted() {
+        SwipeStateStore store = new SwipeStateStore( 2 );
+        store.setRetention( new SwipeStateStore.Retention() {
+            @Override
+            public boolean retains( long id ) {
+                return id <= 2;
+            }
+        } );
+        store.put( 1, 1, 300, false );
+        store.put( 2, 1, 300, false );
+        store.put( 3, 1, 300, false );
+        assertEquals( 3, store.size() );
+        assertEquals( 0, store.getEvictedCount() );
+
+        store.put( 4, 1, 300, false );
+        assertEquals( 3, store.size() );
+        assertTrue( store.indexOf( 3 ) < 0 );
+        assertTrue( store.indexOf( 1 ) >= 0 );
+        assertTrue( store.indexOf( 2 ) >= 0 );
+    }
+}
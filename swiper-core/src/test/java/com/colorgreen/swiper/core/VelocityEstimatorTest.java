@@ -0,0 +1,61 @@
+package com.colorgreen.swiper.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class VelocityEstimatorTest {
+
+    @Test
+    public void leastSquares_constantVelocity() {
+        assertConstantVelocity( new LeastSquaresVelocityEstimator() );
+    }
+
+    @Test
+    public void impulse_constantVelocity() {
+        assertConstantVelocity( new ImpulseVelocityEstimator() );
+    }
+
+    @Test
+    public void leastSquares_usesOnlySamplesInHorizon() {
+        VelocityEstimator estimator = new LeastSquaresVelocityEstimator();
+        estimator.clear();
+        // slow movement long ago, then fast one
+        for( int i = 0; i < 10; i++ )
+            estimator.addSample( i * 8, i );
+        for( int i = 0; i < 10; i++ )
+            estimator.addSample( 200 + i * 8, 100 + i * 16 );
+
+        assertEquals( 2000, estimator.getVelocity(), 1 );
+    }
+
+    @Test
+    public void pause_stopsVelocity() {
+        VelocityEstimator estimator = new ImpulseVelocityEstimator();
+        estimator.clear();
+        for( int i = 0; i < 10; i++ )
+            estimator.addSample( i * 8, i * 16 );
+        estimator.addSample( 200, 160 );
+
+        assertEquals( 0, estimator.getVelocity(), 0 );
+    }
+
+    @Test
+    public void clear_removesSamples() {
+        VelocityEstimator estimator = new LeastSquaresVelocityEstimator();
+        for( int i = 0; i < 10; i++ )
+            estimator.addSample( i * 8, i * 16 );
+        estimator.clear();
+
+        assertEquals( 0, estimator.getVelocity(), 0 );
+    }
+
+    private static void assertConstantVelocity( VelocityEstimator estimator ) {
+        estimator.clear();
+        // 1.5 px/ms, with ring buffer wrapping around
+        for( int i = 0; i < 50; i++ )
+            estimator.addSample( i * 8, i * 12 );
+
+        assertEquals( 1500, estimator.getVelocity(), 1 );
+    }
+}
@@ -0,0 +1,14 @@
+package com.colorgreen.swiper;
+
+/**
+ * Something updated by {@link SwipeAction} on every drag and animation update.
+ */
+interface DragBinding {
+
+    void apply( float val, float totalFriction );
+
+    /**
+     * @return true if binding updates <code>target</code>
+     */
+    boolean isBoundTo( Object target );
+}
@@ -0,0 +1,76 @@
+package com.colorgreen.swiper;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+import com.colorgreen.swiper.core.SwipeMetrics;
+
+/**
+ * Keeps only latest drag value and delivers it to listener once per display frame.
+ */
+@TargetApi( Build.VERSION_CODES.JELLY_BEAN )
+final class DragCoalescer implements Choreographer.FrameCallback {
+
+    private final SwipeAction action;
+    private Choreographer choreographer;
+
+    private float val;
+    private float friction;
+    private boolean pending;
+    private long coalesced;
+
+    DragCoalescer( SwipeAction action ) {
+        this.action = action;
+    }
+
+    void post( float val, float friction ) {
+        this.val = val;
+        this.friction = friction;
+
+        if( pending ) {
+            coalesced++;
+            return;
+        }
+
+        if( choreographer == null )
+            choreographer = Choreographer.getInstance();
+
+        pending = true;
+        choreographer.postFrameCallback( this );
+    }
+
+    /**
+     * Delivers pending value immediately, so it is not reordered with other callbacks.
+     */
+    void flush() {
+        if( !pending )
+            return;
+
+        choreographer.removeFrameCallback( this );
+        doFrame( 0 );
+    }
+
+    long getCoalescedCount() {
+        return coalesced;
+    }
+
+    @Override
+    public void doFrame( long frameTimeNanos ) {
+        pending = false;
+
+        SwipeActionListener listener = action.getSwipeActionListener();
+        if( listener == null )
+            return;
+
+        final SwipeMetrics metrics = action.getMetrics();
+        final long begin = metrics != SwipeMetrics.NONE ? System.nanoTime() : 0;
+
+        SwipeTrace.begin( SwipeTrace.CALLBACK );
+        listener.onDrag( val, friction );
+        SwipeTrace.end();
+
+        if( metrics != SwipeMetrics.NONE )
+            metrics.onCallback( System.nanoTime() - begin );
+    }
+}
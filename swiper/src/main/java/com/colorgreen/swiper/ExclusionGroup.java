@@ -0,0 +1,90 @@
+package com.colorgreen.swiper;
+
+import com.colorgreen.swiper.core.StepTable;
+
+/**
+ * Actions of {@link OnSwipeTouchListener} from which only one can be open at once. When member
+ * leaves its first step, it becomes owner of group and other members are suspended: they are
+ * removed from dispatch of touches until owner settles on first step again.
+ * <pre>
+ * IDLE --owner leaves first step--> ENGAGED --owner settles on other step--> OPEN
+ *   ^                                  |                                      |
+ *   +-----owner settles on first step--+--------------------------------------+
+ * </pre>
+ * Programmatic {@link SwipeAction#expand()} of suspended member is not prevented, check
+ * {@link SwipeAction#isSuspended()} before.
+ *
+ * @see OnSwipeTouchListener#addExclusionGroup(SwipeAction...)
+ */
+public final class ExclusionGroup {
+
+    public enum State {
+        /** All members are on first step. */
+        IDLE,
+        /** Owner is dragged or animated out of first step. */
+        ENGAGED,
+        /** Owner is settled on other than first step. */
+        OPEN
+    }
+
+    private final OnSwipeTouchListener listener;
+    private final SwipeAction[] members;
+
+    private State state = State.IDLE;
+    private SwipeAction owner;
+
+    ExclusionGroup( OnSwipeTouchListener listener, SwipeAction[] members ) {
+        this.listener = listener;
+        this.members = members;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return member which is open, or null in {@link State#IDLE}
+     */
+    public SwipeAction getOwner() {
+        return owner;
+    }
+
+    public boolean contains( SwipeAction action ) {
+        for( SwipeAction member : members )
+            if( member == action )
+                return true;
+        return false;
+    }
+
+    boolean isSuspended( SwipeAction action ) {
+        return owner != null && owner != action;
+    }
+
+    /**
+     * Called by member on every value change.
+     */
+    void onDrag( SwipeAction action, float val ) {
+        final StepTable steps = action.getStepTable();
+        if( state != State.IDLE || steps == null || val == steps.getFirst() )
+            return;
+
+        owner = action;
+        state = State.ENGAGED;
+        listener.onSuspensionChanged();
+    }
+
+    /**
+     * Called by member when it settled on step.
+     */
+    void onDragEnd( SwipeAction action ) {
+        if( action != owner )
+            return;
+
+        if( action.getStep() == 0 ) {
+            owner = null;
+            state = State.IDLE;
+            listener.onSuspensionChanged();
+        } else
+            state = State.OPEN;
+    }
+}
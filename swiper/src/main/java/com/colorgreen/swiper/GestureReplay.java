@@ -0,0 +1,172 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.GestureRecorder;
+
+/**
+ * Feeds recorded gestures back through {@link SwipeAction#onTouch(View, MotionEvent)}. Flings
+ * are animated by own {@link AnimationLoop} with virtual clock, which makes a frame every
+ * {@link #FRAME_TIME} milliseconds of recorded time, so result of replay does not depend on
+ * device or speed of test. After last event running flings are animated until they settle.
+ * Events with more pointers are rebuilt with recorded pointer ids and action index, so handoff
+ * of drag between fingers is replayed too.
+ * <p>
+ * Replay has to be run on thread which handles touches of replayed actions.
+ */
+public final class GestureReplay {
+    public static final long FRAME_TIME = 16;
+    private static final int MAX_SETTLE_FRAMES = 1000;
+
+    private final GestureRecorder recording;
+    private final AnimationLoop loop;
+    private long frameTime;
+
+    public GestureReplay( GestureRecorder recording ) {
+        this.recording = recording;
+        this.loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+    }
+
+    /**
+     * Replays gestures through routing of listener to all its actions.
+     */
+    public void replay( final OnSwipeTouchListener listener ) {
+        final int count = listener.getActionCount();
+        for( int i = 0; i < count; i++ )
+            listener.getAction( i ).setAnimationLoop( loop );
+
+        try {
+            run( listener );
+        } finally {
+            for( int i = 0; i < count; i++ )
+                listener.getAction( i ).setAnimationLoop( null );
+        }
+    }
+
+    public void replay( final SwipeAction action ) {
+        action.setAnimationLoop( loop );
+        try {
+            run( new View.OnTouchListener() {
+                @Override
+                public boolean onTouch( View v, MotionEvent event ) {
+                    return action.onTouch( v, event );
+                }
+            } );
+        } finally {
+            action.setAnimationLoop( null );
+        }
+    }
+
+    /**
+     * @return loop which animated replayed flings, for example to read number of frames
+     */
+    public AnimationLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * @return virtual time of last animation frame
+     */
+    public long getTime() {
+        return frameTime;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void run( View.OnTouchListener target ) {
+        final int size = recording.size();
+        int i = recording.getFirstGesture();
+        if( i == size )
+            return;
+
+        frameTime = recording.getTime( i );
+        long downTime = frameTime;
+
+        while( i < size ) {
+            int end = i;
+            while( end < size && ( recording.getAction( end ) & GestureRecorder.HISTORICAL ) != 0 )
+                end++;
+            int last = end + 1;
+            while( last < size && ( recording.getAction( last ) & GestureRecorder.SAME_EVENT ) != 0 )
+                last++;
+            if( last > size )
+                break;
+
+            final long time = recording.getTime( end );
+            final int action = recording.getAction( end ) & GestureRecorder.ACTION_MASK;
+            advance( time );
+            if( action == GestureRecorder.ACTION_DOWN )
+                downTime = time;
+
+            final MotionEvent event = obtain( i, end, last - end, downTime );
+            target.onTouch( null, event );
+            event.recycle();
+
+            i = last;
+        }
+
+        settle();
+    }
+
+    /**
+     * @param first    first sample of event
+     * @param last     first sample of last batch, all batches before it are historical
+     * @param pointers number of pointers, which is number of samples in every batch
+     * @return event with samples from <code>first</code> to last batch
+     */
+    private MotionEvent obtain( int first, int last, int pointers, long downTime ) {
+        final MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[pointers];
+        final MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointers];
+        int action = recording.getAction( last ) & GestureRecorder.ACTION_MASK;
+        for( int p = 0; p < pointers; p++ ) {
+            properties[p] = new MotionEvent.PointerProperties();
+            properties[p].id = recording.getPointerId( last + p );
+            properties[p].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[p] = new MotionEvent.PointerCoords();
+            if( ( recording.getAction( last + p ) & GestureRecorder.ACTION_POINTER ) != 0 )
+                action |= p << MotionEvent.ACTION_POINTER_INDEX_SHIFT;
+        }
+
+        fillCoords( first, coords );
+        final MotionEvent event = MotionEvent.obtain( downTime, recording.getTime( first ), action,
+                pointers, properties, coords, 0, 0, 1, 1, 0, 0, 0, 0 );
+        for( int b = first + pointers; b <= last; b += pointers ) {
+            fillCoords( b, coords );
+            event.addBatch( recording.getTime( b ), coords, 0 );
+        }
+        return event;
+    }
+
+    private void fillCoords( int batch, MotionEvent.PointerCoords[] coords ) {
+        for( int p = 0; p < coords.length; p++ ) {
+            coords[p].x = recording.getX( batch + p );
+            coords[p].y = recording.getY( batch + p );
+            coords[p].pressure = 1;
+            coords[p].size = 1;
+        }
+    }
+
+    private void advance( long time ) {
+        while( frameTime + FRAME_TIME <= time ) {
+            frameTime += FRAME_TIME;
+            if( loop.getActiveCount() > 0 )
+                loop.doFrame( frameTime );
+        }
+    }
+
+    private void settle() {
+        int frames = 0;
+        while( loop.getActiveCount() > 0 ) {
+            if( frames++ == MAX_SETTLE_FRAMES )
+                throw new RuntimeException( "Replayed flings did not settle" );
+            frameTime += FRAME_TIME;
+            loop.doFrame( frameTime );
+        }
+    }
+}
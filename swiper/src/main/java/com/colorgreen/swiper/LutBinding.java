@@ -0,0 +1,60 @@
+package com.colorgreen.swiper;
+
+import android.view.View;
+
+import com.colorgreen.swiper.core.ColorLut;
+import com.colorgreen.swiper.core.FloatLut;
+
+/**
+ * Samples lookup table with total friction and passes result to target.
+ */
+final class LutBinding implements DragBinding {
+
+    private final FloatLut floatLut;
+    private final FloatLut.Target floatTarget;
+    private final ColorLut colorLut;
+    private final ColorLut.Target colorTarget;
+    private final View background;
+
+    LutBinding( FloatLut lut, FloatLut.Target target ) {
+        this.floatLut = lut;
+        this.floatTarget = target;
+        this.colorLut = null;
+        this.colorTarget = null;
+        this.background = null;
+    }
+
+    LutBinding( ColorLut lut, ColorLut.Target target ) {
+        this.floatLut = null;
+        this.floatTarget = null;
+        this.colorLut = lut;
+        this.colorTarget = target;
+        this.background = null;
+    }
+
+    /**
+     * Binding of background color of view. Background color drawable is reused after first update.
+     */
+    LutBinding( ColorLut lut, View background ) {
+        this.floatLut = null;
+        this.floatTarget = null;
+        this.colorLut = lut;
+        this.colorTarget = null;
+        this.background = background;
+    }
+
+    @Override
+    public void apply( float val, float totalFriction ) {
+        if( floatTarget != null )
+            floatTarget.set( floatLut.sample( totalFriction ) );
+        else if( colorTarget != null )
+            colorTarget.set( colorLut.sample( totalFriction ) );
+        else
+            background.setBackgroundColor( colorLut.sample( totalFriction ) );
+    }
+
+    @Override
+    public boolean isBoundTo( Object target ) {
+        return target == floatTarget || target == colorTarget || target == background;
+    }
+}
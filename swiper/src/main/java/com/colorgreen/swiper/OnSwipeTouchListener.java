@@ -1,16 +1,45 @@
 package com.colorgreen.swiper;
 
 
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.View.OnTouchListener;
+import android.view.ViewConfiguration;
 
+import com.colorgreen.swiper.core.GestureRecorder;
+import com.colorgreen.swiper.core.GestureRouter;
+import com.colorgreen.swiper.core.SwipeMetrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Dispatches touches to added actions. ACTION_DOWN is passed to every not blocked action. When
+ * finger moves over touch slop, dominant axis and sign of movement are resolved and rest of gesture
+ * is passed only to actions which can be dragged that way. Other actions are cancelled and do not
+ * receive more events until next ACTION_DOWN. Events of other fingers are passed to the same
+ * actions, which track pointers by their ids.
+ * <p>
+ * Actions can be put into {@link ExclusionGroup}, then only one of them can be open at once.
+ */
 public class OnSwipeTouchListener implements OnTouchListener {
 
+    private static final int DEFAULT_TOUCH_SLOP = 8;
+
     private List< SwipeAction > actions = new ArrayList< SwipeAction >();
+    private final GestureRouter router = new GestureRouter();
+    private boolean dispatching;
+    private boolean suspensionChanged;
+
+    private SwipeMetrics metrics;
+
+    private GestureRecorder recorder;
 
     public void attachToView( View v ) {
         v.setOnTouchListener( this );
@@ -21,23 +50,258 @@ public class OnSwipeTouchListener implements OnTouchListener {
 
         if( actions.size() == 0 ) return false;
 
-//        for( SwipeAction a : actions) {
-//            if( a.isExtended() ){
-//                a.onTouch( v, event );
-//                return true;
-//            }
-//        }
+        SwipeTrace.begin( SwipeTrace.TOUCH );
+        final boolean measured = metrics != null && metrics != SwipeMetrics.NONE;
+        final long begin = measured ? System.nanoTime() : 0;
+        if( recorder != null )
+            record( event );
 
-        for( SwipeAction action : actions ) {
-            if( action.isBlocked() ) continue;
+        dispatching = true;
+        switch( event.getActionMasked() ) {
+            case MotionEvent.ACTION_DOWN:
+                startGesture( v, event );
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if( !router.isRouted() && !route( event ) )
+                    break;
+                dispatch( v, event );
+                break;
+            default:
+                if( !router.isRouted() && event.getActionMasked() == MotionEvent.ACTION_POINTER_UP )
+                    handoffSlop( event );
+                dispatch( v, event );
+                break;
+        }
+        dispatching = false;
+
+        if( suspensionChanged )
+            applySuspension( event.getEventTime() );
 
-            action.onTouch( v, event );
+        if( measured ) {
+            metrics.onTouchEvent( System.nanoTime() - begin );
+            metrics.onInputLatency( SystemClock.uptimeMillis() - event.getEventTime() );
         }
+        SwipeTrace.end();
 
         return true;
     }
 
-    public void addAction( SwipeAction action ){
+    public void addAction( final SwipeAction action ){
+        if( metrics != null )
+            action.setMetrics( metrics );
         actions.add( action );
+        router.add( new GestureRouter.Target() {
+            @Override
+            public boolean isBlocked() {
+                return action.isBlocked();
+            }
+
+            @Override
+            public boolean isSuspended() {
+                return action.isSuspended();
+            }
+
+            @Override
+            public boolean accepts( boolean vertical, float delta ) {
+                return action.accepts( vertical, delta );
+            }
+
+            @Override
+            public void cancelTouch( long time ) {
+                action.cancelTouch( time );
+            }
+        } );
+    }
+
+    /**
+     * Groups already added actions, so that only one of them can leave first step at once.
+     * Replaces blocking of other actions in their listeners.
+     *
+     * @return group, which reports its state
+     */
+    public ExclusionGroup addExclusionGroup( SwipeAction... members ) {
+        for( SwipeAction member : members ) {
+            if( !actions.contains( member ) )
+                throw new RuntimeException( "Action has to be added before it is grouped" );
+            if( member.getExclusionGroup() != null )
+                throw new RuntimeException( "Action is already in exclusion group" );
+        }
+
+        ExclusionGroup group = new ExclusionGroup( this, members.clone() );
+        for( SwipeAction member : members )
+            member.setExclusionGroup( group );
+        router.updateEnabled();
+        return group;
+    }
+
+    /**
+     * Called by group when its owner changed. Suspended actions are removed from running gesture
+     * after current event is dispatched.
+     */
+    void onSuspensionChanged() {
+        if( dispatching )
+            suspensionChanged = true;
+        else
+            applySuspension( SystemClock.uptimeMillis() );
+    }
+
+    /**
+     * @param touchSlop distance in pixels after which gesture is routed. By default it is taken
+     *                  from {@link ViewConfiguration#getScaledTouchSlop()} of touched view.
+     */
+    public void setTouchSlop( int touchSlop ) {
+        router.setTouchSlop( touchSlop );
+    }
+
+    /**
+     * Sets the same metrics receiver to all actions, also to actions added later. Duration of
+     * handling of every touch event by all actions and its input latency are recorded once here.
+     *
+     * @see SwipeAction#setMetrics(SwipeMetrics)
+     */
+    public void setMetrics( SwipeMetrics metrics ) {
+        this.metrics = metrics;
+        for( int i = 0; i < actions.size(); i++ )
+            actions.get( i ).setMetrics( metrics );
+    }
+
+    /**
+     * Starts recording of touches into ring buffer of given number of samples, every sample takes
+     * 18 bytes and event takes one sample for every its pointer. Recording can be saved with
+     * {@link #dumpGestures(File)} and replayed with {@link GestureReplay}.
+     *
+     * @param recorder recorder of touches, or null to stop recording
+     */
+    public void setGestureRecorder( GestureRecorder recorder ) {
+        this.recorder = recorder;
+    }
+
+    public GestureRecorder getGestureRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Writes recorded gestures to file, for example from bug report handler.
+     */
+    public void dumpGestures( File file ) throws IOException {
+        if( recorder == null )
+            throw new RuntimeException( "Gesture recorder is not set" );
+
+        OutputStream out = new FileOutputStream( file );
+        try {
+            recorder.writeTo( out );
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return snapshot of steps of all actions, for example for onSaveInstanceState(). Animated
+     * action is saved on step to which it is animated.
+     */
+    public SwipeState saveState() {
+        final int n = actions.size();
+        final int[] steps = new int[n];
+        final int[] counts = new int[n];
+        final float[] frictions = new float[n];
+        for( int i = 0; i < n; i++ ) {
+            final SwipeAction action = actions.get( i );
+            steps[i] = action.getSnapshotStep();
+            counts[i] = action.getSnapshotStepCount();
+            frictions[i] = action.getSnapshotFriction();
+        }
+        return new SwipeState( steps, counts, frictions );
+    }
+
+    /**
+     * Moves actions to saved steps at once, without animation. Every action which is restored
+     * calls onDrag of its listener once. Actions have to be added in the same order as when state
+     * was saved and they must not be dragged. If values of steps changed, for example after
+     * rotation, action is restored on the step with the same index. If number of steps changed,
+     * action is restored on the step nearest to saved progress.
+     */
+    public void restoreState( Parcelable state ) {
+        final SwipeState snapshot = (SwipeState) state;
+        final int n = Math.min( snapshot.size(), actions.size() );
+        for( int i = 0; i < n; i++ )
+            actions.get( i ).restore( snapshot.getStep( i ), snapshot.getStepCount( i ), snapshot.getFriction( i ) );
+    }
+
+    int getActionCount() {
+        return actions.size();
+    }
+
+    SwipeAction getAction( int i ) {
+        return actions.get( i );
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void startGesture( View v, MotionEvent event ) {
+        if( router.getTouchSlop() < 0 )
+            router.setTouchSlop( v != null ? ViewConfiguration.get( v.getContext() ).getScaledTouchSlop() : DEFAULT_TOUCH_SLOP );
+
+        router.down( event.getPointerId( 0 ), event.getRawX(), event.getRawY() );
+        dispatch( v, event );
+    }
+
+    /**
+     * @return true if gesture has been routed
+     */
+    private boolean route( MotionEvent event ) {
+        final int index = event.findPointerIndex( router.getSlopPointerId() );
+        if( index < 0 )
+            return false;
+
+        final float x = event.getX( index ) + event.getRawX() - event.getX();
+        final float y = event.getY( index ) + event.getRawY() - event.getY();
+        return router.route( event.getEventTime(), x, y );
+    }
+
+    /**
+     * Finger which is measured against touch slop went up before gesture was routed, slop is
+     * measured from current position of other finger.
+     */
+    private void handoffSlop( MotionEvent event ) {
+        final int up = event.getActionIndex();
+        if( event.getPointerId( up ) != router.getSlopPointerId() )
+            return;
+
+        final int next = up == 0 ? 1 : 0;
+        router.handoffSlop( event.getPointerId( next ), event.getX( next ) + event.getRawX() - event.getX(),
+                event.getY( next ) + event.getRawY() - event.getY() );
+    }
+
+    private void applySuspension( long time ) {
+        suspensionChanged = false;
+        router.applySuspension( time );
+    }
+
+    /**
+     * Records all pointers of event, raw positions of other pointers than first one are computed
+     * with offset of the first one.
+     */
+    private void record( MotionEvent event ) {
+        final int action = event.getActionMasked();
+        final int count = event.getPointerCount();
+        final int history = event.getHistorySize();
+        final float offsetX = event.getRawX() - event.getX();
+        final float offsetY = event.getRawY() - event.getY();
+
+        for( int h = 0; h < history; h++ )
+            for( int p = 0; p < count; p++ )
+                recorder.record( action | GestureRecorder.HISTORICAL | ( p > 0 ? GestureRecorder.SAME_EVENT : 0 ),
+                        event.getPointerId( p ), event.getHistoricalEventTime( h ),
+                        event.getHistoricalX( p, h ) + offsetX, event.getHistoricalY( p, h ) + offsetY );
+
+        final int acting = action == MotionEvent.ACTION_POINTER_DOWN || action == MotionEvent.ACTION_POINTER_UP ? event.getActionIndex() : -1;
+        for( int p = 0; p < count; p++ )
+            recorder.record( action | ( p > 0 ? GestureRecorder.SAME_EVENT : 0 ) | ( p == acting ? GestureRecorder.ACTION_POINTER : 0 ),
+                    event.getPointerId( p ), event.getEventTime(), event.getX( p ) + offsetX, event.getY( p ) + offsetY );
+    }
+
+    private void dispatch( View v, MotionEvent event ) {
+        for( int i = 0; i < router.getReceiverCount(); i++ )
+            actions.get( router.getReceiver( i ) ).onTouch( v, event );
     }
-}
\ No newline at end of file
+}
@@ -1,35 +1,144 @@
 package com.colorgreen.swiper;
 
-import android.support.animation.DynamicAnimation;
-import android.support.animation.FlingAnimation;
-import android.support.animation.FloatValueHolder;
+import android.os.Build;
 import android.view.MotionEvent;
-import android.view.VelocityTracker;
 import android.view.View;
 
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.ColorLut;
+import com.colorgreen.swiper.core.DragStream;
+import com.colorgreen.swiper.core.FloatLut;
+import com.colorgreen.swiper.core.PointerTracker;
+import com.colorgreen.swiper.core.RelativeSteps;
+import com.colorgreen.swiper.core.StepTable;
+import com.colorgreen.swiper.core.SwipeEngine;
+import com.colorgreen.swiper.core.SwipeMetrics;
+import com.colorgreen.swiper.core.SwipePhysics;
+import com.colorgreen.swiper.core.VelocityEstimator;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
 public class SwipeAction {
-    private static final float SLOW_FACTOR = 4.5f;
 
     public enum DragDirection {Right, Up, Left, Down}
 
-    private DragDirection direction = DragDirection.Down;
+    /** Pointer id of drags which are not made of touch events. */
+    private static final int DRAG_POINTER = 0;
 
-    private float[] steps;
-    private int csIter = 0;
-    private float dragThreshold = 0.5f;
-    private float currentStep;
-    private float lastPosition;
-    private float startPosition;
+    private DragDirection direction = DragDirection.Down;
 
-    private boolean isDragging = false;
     private boolean blocked = false;
 
-    private FlingAnimation flingAnimation;
+    private SwipeActionListener swipeActionListener = null;
+
+    private DragCoalescer dragCoalescer;
 
-    private VelocityTracker velocityTracker;
-    private MotionEvent startEvent;
+    private DragBinding[] bindings = new DragBinding[0];
 
-    private SwipeActionListener swipeActionListener = null;
+    private AnimationLoop animationLoop;
+
+    private ExclusionGroup group;
+
+    private DragStream dragStream;
+    private int streamStep;
+
+    private final PointerTracker pointers = new PointerTracker();
+
+    private int predictedStep = -1;
+    private boolean touchDown;
+
+    private RelativeSteps relativeSteps;
+    private View stepsView;
+    private View stepsParent;
+    private View stepsAnchor;
+    private boolean stepsDirty;
+    private boolean touchIgnored;
+    private int pushPending = -1;
+
+    private boolean restorePending;
+    private int restoreStep;
+    private int restoreCount;
+    private float restoreFriction;
+
+    private final View.OnLayoutChangeListener stepsLayoutListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange( View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom ) {
+            stepsDirty = true;
+            resolveSteps();
+        }
+    };
+
+    /**
+     * Moves idle action to its step after steps were resolved again, outside of layout pass.
+     */
+    private final Runnable stepsMoved = new Runnable() {
+        @Override
+        public void run() {
+            if( engine.isDragging() )
+                return;
+            final float position = engine.getPosition();
+            engineCallback.onDrag( position, engine.getFriction( position ) );
+        }
+    };
+
+    private final SwipeEngine.Callback engineCallback = new SwipeEngine.Callback() {
+        @Override
+        public void onDragStart( float val, float totalFriction ) {
+            if( dragCoalescer != null )
+                dragCoalescer.flush();
+            if( dragStream != null )
+                dragStream.publishDragStart( val, totalFriction );
+            if( swipeActionListener != null )
+                swipeActionListener.onDragStart( val, totalFriction );
+        }
+
+        @Override
+        public void onDrag( float val, float totalFriction ) {
+            if( group != null )
+                group.onDrag( SwipeAction.this, val );
+            if( dragStream != null )
+                dragStream.publishDrag( val, totalFriction );
+            deliverDrag( val, totalFriction );
+        }
+
+        @Override
+        public void onDragEnd( float val, float totalFriction ) {
+            predictedStep = -1;
+            if( dragCoalescer != null )
+                dragCoalescer.flush();
+            if( group != null )
+                group.onDragEnd( SwipeAction.this );
+            if( dragStream != null )
+                publishDragEnd( val, totalFriction );
+            if( swipeActionListener != null )
+                swipeActionListener.onDragEnd( val, totalFriction );
+            if( stepsDirty )
+                resolveSteps();
+        }
+
+        @Override
+        public void onFlingStart( float start, float velocity, float min, float max ) {
+            getLoop().start( engine, engine.getPhysics(), start, engine.getFlingTarget(), velocity, min, max );
+            if( swipeActionListener instanceof SwipeActionSettleListener ) {
+                predictedStep = engine.getFlingTargetStep();
+                ( (SwipeActionSettleListener) swipeActionListener ).onSettlePredicted( predictedStep,
+                        Math.round( engine.getFlingDuration() * 1000 ) );
+            }
+        }
+
+        @Override
+        public void onFlingCancel() {
+            getLoop().cancel( engine );
+            cancelPrediction();
+        }
+    };
+
+    private final SwipeEngine engine = new SwipeEngine( engineCallback );
+
+    {
+        engine.setVelocityEstimator( new TrackerVelocityEstimator() );
+    }
 
     public SwipeAction() {
     }
@@ -40,9 +149,9 @@ public class SwipeAction {
      * @param dragThreshold default threshold is 0.5f
      */
     public SwipeAction( DragDirection direction, float[] steps, float dragThreshold, SwipeActionListener listener ) {
-        this.direction = direction;
+        setDirection( direction );
         setSteps( steps );
-        this.dragThreshold = dragThreshold;
+        setDragThreshold( dragThreshold );
         this.swipeActionListener = listener;
     }
 
@@ -51,35 +160,103 @@ public class SwipeAction {
     }
 
     public boolean onTouch( View v, MotionEvent event ) {
-        if( event.getAction() == MotionEvent.ACTION_DOWN )
-            velocityTracker = VelocityTracker.obtain();
-
-        if( isDragging )
-            velocityTracker.addMovement( event );
+        SwipeTrace.begin( SwipeTrace.ACTION_TOUCH );
+        final long time = event.getEventTime();
+        final float offsetX = event.getRawX() - event.getX();
+        final float offsetY = event.getRawY() - event.getY();
+        final int index = event.getActionIndex();
+
+        // gesture which started before steps were resolved is ignored until next ACTION_DOWN
+        if( event.getActionMasked() == MotionEvent.ACTION_DOWN )
+            touchIgnored = !startDrag( event.getPointerId( 0 ), time, event.getRawX(), event.getRawY() );
+        if( touchIgnored ) {
+            SwipeTrace.end();
+            return false;
+        }
 
-        switch( event.getAction() ) {
-            case MotionEvent.ACTION_DOWN:
-                startDrag( event );
+        switch( event.getActionMasked() ) {
+            case MotionEvent.ACTION_POINTER_DOWN:
+                if( pointers.pointerDown( event.getPointerId( index ), time, event.getX( index ) + offsetX, event.getY( index ) + offsetY ) )
+                    handoff();
                 break;
             case MotionEvent.ACTION_MOVE:
-                onMove( startEvent, event );
+                onMove( event, offsetX, offsetY );
+                break;
+            case MotionEvent.ACTION_POINTER_UP:
+                if( pointers.pointerUp( event.getPointerId( index ), time, event.getX( index ) + offsetX, event.getY( index ) + offsetY ) )
+                    handoff();
                 break;
             case MotionEvent.ACTION_UP:
-                endDrag( startEvent, event );
+                if( event.getPointerId( 0 ) == pointers.getActivePointerId() )
+                    engine.up( time, event.getRawX(), event.getRawY() );
+                else
+                    // drive was lost to untracked pointer, release without its velocity
+                    engine.cancel( time );
+                pointers.clear();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                engine.cancel( time );
+                pointers.clear();
                 break;
         }
 
+        SwipeTrace.end();
         return true;
     }
 
+    /**
+     * Releases velocity tracker and stops running animation. Running drag or animation is
+     * finished on its step, so listener receives onDragEnd. Action can be still used after
+     * release, needed objects are obtained again on next touch.
+     */
+    public void release() {
+        engine.settle();
+        pointers.clear();
+
+        if( engine.getVelocityEstimator() instanceof TrackerVelocityEstimator )
+            ( (TrackerVelocityEstimator) engine.getVelocityEstimator() ).recycle();
+
+        if( dragCoalescer != null )
+            dragCoalescer.flush();
+    }
+
+    /**
+     * Animates action to step. Relative steps which are not resolved yet are animated to after
+     * they are resolved.
+     */
     public void pushToStep( int stepIndex ){
-        final float nextStep = steps[stepIndex];
-        float velocity = ( steps[stepIndex] - lastPosition ) * SLOW_FACTOR;
-        pushToStep( nextStep, velocity );
+        resolveSteps();
+        if( engine.getStepTable() == null ) {
+            pushPending = stepIndex;
+            return;
+        }
+        engine.pushToStep( stepIndex );
+    }
+
+    /**
+     * Moves action to step immediately, without animation, action must not be dragged. Listener
+     * is not called, subscribers of drag stream receive change of step. Relative steps which are
+     * not resolved yet are moved to step after they are resolved.
+     */
+    public void setStep( int stepIndex ) {
+        resolveSteps();
+        if( engine.getStepTable() == null ) {
+            pushPending = -1;
+            restorePending = true;
+            restoreStep = stepIndex;
+            restoreCount = getStepCount();
+            return;
+        }
+        engine.setStep( stepIndex );
+        if( dragStream != null && stepIndex != streamStep ) {
+            streamStep = stepIndex;
+            dragStream.publishStepChanged( stepIndex );
+        }
     }
 
     public void expand(){
-        pushToStep( steps.length-1 );
+        resolveSteps();
+        pushToStep( getStepCount()-1 );
     }
 
     public void collapse(){
@@ -93,7 +270,7 @@ public class SwipeAction {
      * @param dragThreshold percent above which drag is executed
      */
     public void setDragThreshold( float dragThreshold ) {
-        this.dragThreshold = dragThreshold;
+        engine.setDragThreshold( dragThreshold );
     }
 
     /**
@@ -101,15 +278,60 @@ public class SwipeAction {
      * order. For direction Right and Down values have to be ascending.
      * Example for direction left: [ 0, -300, -600 ]
      * Watch out for using etc. view.getX() function in onCreate() of activity. It will propably return 0.
-     * Use view.getViewTreeObserver() to obtain axis properties.
+     * Steps which depend on size of views can be set with
+     * {@link #setSteps(RelativeSteps, View, View)} instead, they are resolved after layout.
      *
      * @param steps Array in ascending or descending order, depends of direction.
      * @see <a href="https://stackoverflow.com/questions/3591784/views-getwidth-and-getheight-returns-0">stackoverflow.com</a>
      */
     public void setSteps( float[] steps ) {
-        checkSteps( steps );
-        this.steps = steps;
-        currentStep = lastPosition = steps[csIter];
+        clearRelativeSteps();
+        engine.setSteps( steps );
+    }
+
+    /**
+     * Same as {@link #setSteps(float[])}, but steps are already validated, so tables prepared
+     * earlier can be swapped cheaply. Table order still has to match direction.
+     */
+    public void setStepTable( StepTable steps ) {
+        clearRelativeSteps();
+        engine.setStepTable( steps );
+    }
+
+    public void setSteps( RelativeSteps steps, View reference ) {
+        setSteps( steps, reference, null );
+    }
+
+    /**
+     * Steps relative to sizes of views on drag axis, they can be set in onCreate(). Steps are
+     * resolved on first touch or when some of views is laid out with other size, from layout
+     * listeners, so no layout pass is added. Idle action then moves to its step, running drag
+     * keeps old steps until it settles. Sizes for which steps are not in order or collapse keep
+     * previous steps until views are laid out again.
+     *
+     * @param reference view for {@link RelativeSteps#VIEW}, its parent is used for
+     *                  {@link RelativeSteps#PARENT}
+     * @param anchor    view for {@link RelativeSteps#ANCHOR}, or null
+     */
+    public void setSteps( RelativeSteps steps, View reference, View anchor ) {
+        if( steps.uses( RelativeSteps.ANCHOR ) && anchor == null )
+            throw new RuntimeException( "Steps need anchor view" );
+
+        clearRelativeSteps();
+        relativeSteps = steps;
+        stepsView = reference;
+        stepsParent = steps.uses( RelativeSteps.PARENT ) ? (View) reference.getParent() : null;
+        stepsAnchor = anchor;
+        for( View v : new View[]{ stepsView, stepsParent, stepsAnchor } )
+            if( v != null )
+                v.addOnLayoutChangeListener( stepsLayoutListener );
+
+        stepsDirty = true;
+        resolveSteps();
+    }
+
+    public StepTable getStepTable() {
+        return engine.getStepTable();
     }
 
     public DragDirection getDirection() {
@@ -118,24 +340,220 @@ public class SwipeAction {
 
     public void setDirection( DragDirection direction ) {
         this.direction = direction;
-        if( this.steps != null )
-            checkSteps( this.steps );
+        engine.setDirection( direction == DragDirection.Up || direction == DragDirection.Down,
+                direction == DragDirection.Left || direction == DragDirection.Up );
     }
 
     public float getDragThreshold() {
-        return dragThreshold;
+        return engine.getDragThreshold();
     }
 
     public boolean isDragging() {
-        return isDragging;
+        return engine.isDragging();
     }
 
     public boolean isExtended() {
-        return csIter > 0;
+        return engine.isExtended();
     }
 
     public int getStep() {
-        return csIter;
+        return engine.getStep();
+    }
+
+    /**
+     * When enabled, {@link SwipeActionListener#onDrag(float, float)} is called at most once per
+     * display frame with latest value and friction, instead of on every touch event and animation
+     * update. Pending value is always delivered before onDragStart and onDragEnd. Requires API 16,
+     * on older devices updates are delivered immediately.
+     */
+    public void setCoalesceDragUpdates( boolean coalesce ) {
+        if( coalesce ) {
+            if( dragCoalescer == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN )
+                dragCoalescer = new DragCoalescer( this );
+        } else if( dragCoalescer != null ) {
+            dragCoalescer.flush();
+            dragCoalescer = null;
+        }
+    }
+
+    public boolean isCoalesceDragUpdates() {
+        return dragCoalescer != null;
+    }
+
+    /**
+     * @return number of drag updates which were replaced by newer value before they were delivered
+     */
+    public long getCoalescedDragUpdates() {
+        return dragCoalescer != null ? dragCoalescer.getCoalescedCount() : 0;
+    }
+
+    /**
+     * @param velocityEstimator estimator of release velocity. Default is
+     *                          {@link TrackerVelocityEstimator}, which uses framework VelocityTracker.
+     *                          Allocation free estimators from swiper-core, like
+     *                          {@link com.colorgreen.swiper.core.LeastSquaresVelocityEstimator}
+     *                          or {@link com.colorgreen.swiper.core.ImpulseVelocityEstimator}, can be
+     *                          used and tested without device.
+     */
+    public void setVelocityEstimator( VelocityEstimator velocityEstimator ) {
+        engine.setVelocityEstimator( velocityEstimator );
+    }
+
+    public VelocityEstimator getVelocityEstimator() {
+        return engine.getVelocityEstimator();
+    }
+
+    /**
+     * @param handoff which finger drives the drag when more fingers touch,
+     *                {@link PointerTracker.Handoff#LATEST} by default
+     */
+    public void setPointerHandoff( PointerTracker.Handoff handoff ) {
+        pointers.setHandoff( handoff );
+    }
+
+    public PointerTracker.Handoff getPointerHandoff() {
+        return pointers.getHandoff();
+    }
+
+    /**
+     * @param physics motion of flings: {@link com.colorgreen.swiper.core.DecayPhysics} ( default ),
+     *                {@link com.colorgreen.swiper.core.SpringPhysics} or
+     *                {@link com.colorgreen.swiper.core.CurvePhysics}. Landing step is picked
+     *                from its projection, see {@link SwipeEngine#getFlingPosition(float)} for
+     *                preview of running fling.
+     */
+    public void setPhysics( SwipePhysics physics ) {
+        engine.setPhysics( physics );
+    }
+
+    public SwipePhysics getPhysics() {
+        return engine.getPhysics();
+    }
+
+    /**
+     * Reduces visible lag behind finger. Value passed to listener and bindings while dragging is
+     * extrapolated with current velocity, for example one frame ahead, and clamped to steps
+     * around current step. Prediction error is reported to {@link #setMetrics(SwipeMetrics)}.
+     *
+     * @param horizon time of prediction in milliseconds, 0 turns prediction off ( default )
+     */
+    public void setPredictionHorizon( long horizon ) {
+        engine.setPredictionHorizon( horizon );
+    }
+
+    public long getPredictionHorizon() {
+        return engine.getPredictionHorizon();
+    }
+
+    /**
+     * Sets receiver of measurements: duration of listener callbacks, fling statistics and
+     * errors of prediction. Duration of touch handling and input latency are measured once per
+     * event by {@link OnSwipeTouchListener#setMetrics(SwipeMetrics)}. Default
+     * {@link SwipeMetrics#NONE} does not measure anything.
+     *
+     * @see com.colorgreen.swiper.core.SwipeMetricsCollector
+     */
+    public void setMetrics( SwipeMetrics metrics ) {
+        engine.setMetrics( metrics );
+    }
+
+    public SwipeMetrics getMetrics() {
+        return engine.getMetrics();
+    }
+
+    /**
+     * Subscribes to drag events delivered on <code>executor</code> instead of touch and animation
+     * path, for example for analytics or expensive derived state. Subscriber gets the same events
+     * as {@link SwipeActionListener} and change of step.
+     *
+     * @param mode     {@link DragStream.Mode#CONFLATE} delivers only the latest undelivered drag
+     *                 value, {@link DragStream.Mode#BUFFER} delivers all of them
+     * @param capacity maximum number of undelivered events, the oldest are dropped over it
+     * @return subscription, which can be cancelled
+     */
+    public DragStream.Subscription subscribe( DragStream.Subscriber subscriber, Executor executor, DragStream.Mode mode, int capacity ) {
+        if( dragStream == null ) {
+            dragStream = new DragStream();
+            streamStep = engine.getStep();
+        }
+        return dragStream.subscribe( subscriber, executor, mode, capacity );
+    }
+
+    /**
+     * Binds drag value directly to property of view, for example {@link ViewPropertyBinding.Property#TRANSLATION_Y}.
+     * Property is updated on every drag and animation update without triggering layout. It is
+     * cheaper alternative of changing layout params in listener.
+     */
+    public void bind( View view, ViewPropertyBinding.Property property ) {
+        addBinding( new ViewPropertyBinding( view, property, null ) );
+    }
+
+    /**
+     * Binds total friction to property of view, property changes linearly from <code>from</code>
+     * on first step to <code>to</code> on last step. For example fade in:
+     * <code>bind( view, ViewPropertyBinding.Property.ALPHA, 0, 1 )</code>
+     */
+    public void bind( View view, ViewPropertyBinding.Property property, float from, float to ) {
+        addBinding( new ViewPropertyBinding( view, property, FloatLut.linear( from, to ) ) );
+    }
+
+    /**
+     * Binds total friction to property of view through lookup table, for example
+     * <code>bind( view, ViewPropertyBinding.Property.SCALE_X, FloatLut.of( curve ) )</code>.
+     */
+    public void bind( View view, ViewPropertyBinding.Property property, FloatLut lut ) {
+        addBinding( new ViewPropertyBinding( view, property, lut ) );
+    }
+
+    /**
+     * Sets background color of view from gradient sampled with total friction, for example
+     * <code>bindBackgroundColor( bar, ColorLut.hsv( lightBlue, darkBlue ) )</code>.
+     */
+    public void bindBackgroundColor( View view, ColorLut colors ) {
+        addBinding( new LutBinding( colors, view ) );
+    }
+
+    /**
+     * Passes value of lookup table sampled with total friction to target on every update.
+     */
+    public void map( FloatLut lut, FloatLut.Target target ) {
+        addBinding( new LutBinding( lut, target ) );
+    }
+
+    /**
+     * Passes color of lookup table sampled with total friction to target on every update.
+     */
+    public void map( ColorLut lut, ColorLut.Target target ) {
+        addBinding( new LutBinding( lut, target ) );
+    }
+
+    /**
+     * Removes all bindings of view or mapping target.
+     */
+    public void unbind( Object target ) {
+        int count = 0;
+        for( DragBinding b : bindings )
+            if( !b.isBoundTo( target ) )
+                count++;
+
+        DragBinding[] result = new DragBinding[count];
+        int i = 0;
+        for( DragBinding b : bindings )
+            if( !b.isBoundTo( target ) )
+                result[i++] = b;
+        bindings = result;
+    }
+
+    /**
+     * @return true if other member of {@link ExclusionGroup} of this action is open, suspended
+     * action does not receive touches
+     */
+    public boolean isSuspended() {
+        return group != null && group.isSuspended( this );
+    }
+
+    public ExclusionGroup getExclusionGroup() {
+        return group;
     }
 
     public boolean isBlocked() {
@@ -154,210 +572,356 @@ public class SwipeAction {
         this.swipeActionListener = swipeActionListener;
     }
 
-    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+    /**
+     * @return platform independent engine which keeps state of this action
+     */
+    public SwipeEngine getEngine() {
+        return engine;
+    }
 
+    /**
+     * @return step on which action is or will be settled, for snapshot
+     */
+    int getSnapshotStep() {
+        if( engine.getStepTable() == null )
+            return pushPending >= 0 ? pushPending : restorePending ? restoreStep : 0;
+        if( engine.isFlinging() )
+            return engine.getFlingTargetStep();
+        if( engine.isDragging() )
+            return engine.getStepTable().nearest( engine.getPosition() );
+        return engine.getStep();
+    }
 
-    private void startDrag( MotionEvent event ) {
-        if( isDragging ) {
-            if( flingAnimation != null && flingAnimation.isRunning() ) {
-                flingAnimation.cancel();
-                startEvent = MotionEvent.obtain( event );
-            }
-        } else {
-            if( swipeActionListener != null )
-                swipeActionListener.onDragStart( currentStep, 0 );
+    int getSnapshotStepCount() {
+        if( engine.getStepTable() == null )
+            return restorePending && pushPending < 0 ? restoreCount : getStepCount();
+        return engine.getStepTable().size();
+    }
 
-            currentStep = steps[csIter];
-            startEvent = MotionEvent.obtain( event );
-            isDragging = true;
-        }
-        startPosition = lastPosition;
+    float getSnapshotFriction() {
+        if( engine.getStepTable() == null )
+            return restorePending ? restoreFriction : 0;
+        return engine.getFriction( engine.getStepTable().get( getSnapshotStep() ) );
     }
 
-    private void onMove( MotionEvent e1, MotionEvent e2 ) {
-        final float diff = getDiff( e1, e2 ) + startPosition;
-        float friction = Math.abs( ( lastPosition - steps[0] ) / ( steps[steps.length - 1] - steps[0] ) );
+    /**
+     * Moves idle action to saved step without animation, listener receives one onDrag. Relative
+     * steps which are not resolved yet are restored when they are resolved.
+     *
+     * @param count    number of steps when state was saved
+     * @param friction progress of saved step, used when number of steps changed
+     */
+    void restore( int step, int count, float friction ) {
+        pushPending = -1;
+        restorePending = true;
+        restoreStep = step;
+        restoreCount = count;
+        restoreFriction = friction;
 
-        boolean iOnDrag = false;
+        // steps resolved now restore pending state and report it with one posted onDrag
+        resolveSteps();
+        if( !restorePending || engine.getStepTable() == null )
+            return;
 
-        if( direction == DragDirection.Left || direction == DragDirection.Up ) {
-            if( csIter + 1 == steps.length )
-                iOnDrag = steps[csIter - 1] >= diff && diff >= steps[steps.length - 1];
-            else if( csIter == 0 )
-                iOnDrag = steps[0] >= diff && diff >= steps[csIter + 1];
-            else
-                iOnDrag = steps[csIter - 1] >= diff && diff >= steps[csIter + 1];
+        restorePending = false;
+        if( stepsView != null )
+            stepsView.removeCallbacks( stepsMoved );
+        applyRestore( step, count, friction, true );
+    }
 
-        } else {
-            if( csIter + 1 == steps.length )
-                iOnDrag = steps[csIter - 1] <= diff && diff <= steps[steps.length - 1];
-            else if( csIter == 0 )
-                iOnDrag = steps[0] <= diff && diff <= steps[csIter + 1];
-            else
-                iOnDrag = steps[csIter - 1] <= diff && diff <= steps[csIter + 1];
+    /**
+     * Called by {@link OnSwipeTouchListener} when rest of gesture is routed to other actions.
+     */
+    void cancelTouch( long time ) {
+        engine.cancel( time );
+    }
 
-        }
+    /**
+     * Starts drag which is not made of touch events, for example nested scroll of child of
+     * {@link SwipeLayout}. Drag goes through the same path as ACTION_DOWN of this action.
+     *
+     * @return false if steps are not resolved yet, drag is ignored then
+     */
+    boolean dragDown( long time, float x, float y ) {
+        touchIgnored = !startDrag( DRAG_POINTER, time, x, y );
+        return !touchIgnored;
+    }
 
-        if( iOnDrag ) {
-            if( swipeActionListener != null )
-                swipeActionListener.onDrag( diff, friction );
-            lastPosition = diff;
-        }
+    void dragMove( long time, float x, float y ) {
+        if( touchIgnored )
+            return;
+        pointers.move( DRAG_POINTER, time, x, y );
+        engine.move( time, x, y );
     }
 
-    private float getNextStep( float position ) {
-        return getNextStep( position, true );
+    /**
+     * @param velocity velocity on drag axis in pixels per second, NaN if it is estimated from
+     *                 moves
+     */
+    void dragUp( long time, float x, float y, float velocity ) {
+        if( touchIgnored )
+            return;
+        if( Float.isNaN( velocity ) )
+            engine.up( time, x, y );
+        else
+            engine.up( time, x, y, velocity );
+        pointers.clear();
     }
 
-    private float getNextStep( float position, boolean checkThreshold ) {
-        float nextStep;
+    /**
+     * Finishes drag on step which it reached, so next drag can continue over following steps.
+     */
+    void dragSettle() {
+        engine.settle();
+    }
 
-        if( direction == DragDirection.Left || direction == DragDirection.Up ) {
-            if( csIter + 1 == steps.length ) {
-                if( position < steps[csIter] )
-                    nextStep = steps[csIter];
-                else
-                    nextStep = steps[csIter - 1];
+    boolean accepts( boolean vertical, float delta ) {
+        resolveSteps();
+        return engine.getStepTable() != null && engine.accepts( vertical, delta );
+    }
 
-            } else {
-                if( position > steps[csIter] )
-                    nextStep = steps[csIter != 0 ? csIter - 1 : csIter];
-                else
-                    nextStep = steps[csIter + 1];
+    void setExclusionGroup( ExclusionGroup group ) {
+        this.group = group;
+    }
 
-            }
-        } else {
-            if( csIter + 1 == steps.length ) {
-                if( position > steps[csIter] )
-                    nextStep = steps[csIter];
-                else
-                    nextStep = steps[csIter - 1];
+    /**
+     * @param loop loop which animates flings of this action, null for {@link SwipeAnimator}
+     */
+    void setAnimationLoop( AnimationLoop loop ) {
+        this.animationLoop = loop;
+    }
 
-            } else {
-                if( position < steps[csIter] )
-                    nextStep = steps[csIter != 0 ? csIter - 1 : csIter];
-                else
-                    nextStep = steps[csIter + 1];
+    AnimationLoop getLoop() {
+        return animationLoop != null ? animationLoop : SwipeAnimator.getInstance().getLoop();
+    }
 
-            }
-        }
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
 
-        if( checkThreshold && steps[csIter] != nextStep && Math.abs( currentStep - position ) < ( Math.abs( nextStep - steps[csIter] ) * dragThreshold ) )
-            return steps[csIter];
+    private void addBinding( DragBinding binding ) {
+        DragBinding[] result = Arrays.copyOf( bindings, bindings.length + 1 );
+        result[bindings.length] = binding;
+        bindings = result;
 
-        return nextStep;
+        if( engine.getStepTable() != null )
+            binding.apply( engine.getPosition(), engine.getFriction( engine.getPosition() ) );
     }
 
-    private float calculateVelocity( float diff ) {
-        velocityTracker.computeCurrentVelocity( 1000 );
+    private void publishDragEnd( float val, float totalFriction ) {
+        dragStream.publishDragEnd( val, totalFriction );
+        if( engine.getStep() != streamStep ) {
+            streamStep = engine.getStep();
+            dragStream.publishStepChanged( streamStep );
+        }
+    }
 
-        float velocity = velocityTracker.getXVelocity();
-        if( direction == DragDirection.Up || direction == DragDirection.Down )
-            velocity = velocityTracker.getYVelocity();
+    private void deliverDrag( float val, float totalFriction ) {
+        if( dragCoalescer != null ) {
+            // listener is called and measured on next frame
+            applyBindings( val, totalFriction );
+            dragCoalescer.post( val, totalFriction );
+            return;
+        }
 
-        float nextStep = getNextStep( diff, false );
+        final SwipeMetrics metrics = engine.getMetrics();
+        final long begin = metrics != SwipeMetrics.NONE ? System.nanoTime() : 0;
 
-        if( Math.abs( velocity ) < Math.abs( nextStep - lastPosition ) * SLOW_FACTOR ) {
-            velocity = ( getNextStep( diff ) - lastPosition ) * SLOW_FACTOR;
+        applyBindings( val, totalFriction );
+        if( swipeActionListener != null ) {
+            SwipeTrace.begin( SwipeTrace.CALLBACK );
+            swipeActionListener.onDrag( val, totalFriction );
+            SwipeTrace.end();
         }
 
-        return velocity;
+        if( metrics != SwipeMetrics.NONE )
+            metrics.onCallback( System.nanoTime() - begin );
     }
 
-    private void endDrag( MotionEvent e1, MotionEvent e2 ) {
-        final float diff = getDiff( e1, e2 );
-        final float velocity = calculateVelocity( lastPosition + diff / SLOW_FACTOR );
-        final float nextStep = getNextStep( lastPosition + velocity / SLOW_FACTOR );
-
-        pushToStep( nextStep, velocity );
+    private void applyBindings( float val, float totalFriction ) {
+        final DragBinding[] b = bindings;
+        for( int i = 0; i < b.length; i++ )
+            b[i].apply( val, totalFriction );
     }
 
+    /**
+     * Resolves relative steps if some size could change. Sizes are compared with cached ones,
+     * table is replaced only when resolved values differ.
+     */
+    private void resolveSteps() {
+        if( !stepsDirty || engine.isDragging() )
+            return;
+
+        final float view = axisSize( stepsView, false );
+        final float parent = stepsParent != null ? axisSize( stepsParent, false ) : 0;
+        final float anchor = stepsAnchor != null ? axisSize( stepsAnchor, true ) : 0;
+
+        // not laid out yet on drag axis
+        if( ( view == 0 && relativeSteps.uses( RelativeSteps.VIEW ) )
+                || ( parent == 0 && relativeSteps.uses( RelativeSteps.PARENT ) )
+                || ( anchor == 0 && relativeSteps.uses( RelativeSteps.ANCHOR ) ) )
+            return;
+
+        final StepTable old = engine.getStepTable();
+        final StepTable table;
+        try {
+            table = relativeSteps.resolve( view, parent, anchor );
+        } catch( RuntimeException e ) {
+            // called also from layout pass, steps stay dirty and are resolved on next layout
+            return;
+        }
+        stepsDirty = false;
+        if( table == old )
+            return;
+
+        engine.setStepTable( table );
+        if( restorePending ) {
+            restorePending = false;
+            applyRestore( restoreStep, restoreCount, restoreFriction, false );
+        }
+        stepsView.post( stepsMoved );
 
-    private void pushToStep( final float nextStep, final float velocity ){
-
-        FloatValueHolder floatValueHolder = new FloatValueHolder( lastPosition );
-        flingAnimation = new FlingAnimation( floatValueHolder )
-                .setStartVelocity( velocity )
-                .setStartValue( lastPosition )
-                .addUpdateListener( new DynamicAnimation.OnAnimationUpdateListener() {
-                    @Override
-                    public void onAnimationUpdate( DynamicAnimation animation, float value, float velocity ) {
-                        lastPosition = value;
-                        float friction = Math.abs( ( lastPosition - steps[0] ) / ( steps[steps.length - 1] - steps[0] ) );
-                        if( swipeActionListener != null )
-                            swipeActionListener.onDrag( value, friction );
-                    }
-                } )
-                .addEndListener( new DynamicAnimation.OnAnimationEndListener() {
-                    @Override
-                    public void onAnimationEnd( DynamicAnimation animation, boolean canceled, float value, float velocity ) {
-                        lastPosition = value;
-                        float friction = Math.abs( ( lastPosition - steps[0] ) / ( steps[steps.length - 1] - steps[0] ) );
-                        if( swipeActionListener != null )
-                            swipeActionListener.onDrag( value, friction );
-
-                        if( !canceled ) {
-                            csIter = getStepIndex( nextStep );
-                            isDragging = false;
-                            if( swipeActionListener != null )
-                                swipeActionListener.onDragEnd( nextStep, 1 );
-                        }
-                    }
-                } );
-
-        float _min = min( currentStep, nextStep, lastPosition );
-        float _max = max( currentStep, nextStep, lastPosition );
-
-        flingAnimation.setMinValue( _min ).setMaxValue( _max );
-        flingAnimation.start();
+        if( pushPending >= 0 ) {
+            final int step = pushPending;
+            pushPending = -1;
+            engine.pushToStep( step );
+        }
     }
 
-    private float getDiff( MotionEvent e1, MotionEvent e2 ) {
-        if( direction == DragDirection.Up || direction == DragDirection.Down )
-            return e2.getRawY() - e1.getRawY();
-        return e2.getRawX() - e1.getRawX();
+    /**
+     * @return number of steps, also of relative steps which are not resolved yet
+     */
+    private int getStepCount() {
+        if( engine.getStepTable() != null )
+            return engine.getStepTable().size();
+        return relativeSteps != null ? relativeSteps.size() : 0;
     }
 
-    private int getStepIndex( float val ) {
-        for( int i = 0; i < steps.length; i++ )
-            if( val == steps[i] )
-                return i;
-        return -1;
+    /**
+     * Step is taken by index when steps have the same count, only their values changed, otherwise
+     * nearest step to saved progress is searched.
+     */
+    private void applyRestore( int step, int count, float friction, boolean emit ) {
+        final StepTable table = engine.getStepTable();
+        if( count != table.size() )
+            step = table.nearest( table.getFirst() + friction * ( table.getLast() - table.getFirst() ) );
+
+        setStep( step );
+        final float position = engine.getPosition();
+        if( group != null ) {
+            group.onDrag( this, position );
+            group.onDragEnd( this );
+        }
+        if( emit )
+            engineCallback.onDrag( position, engine.getFriction( position ) );
     }
 
-    private void checkSteps( float[] steps ) {
-        if( steps.length < 2 )
-            throw new RuntimeException( "There have to be minimum two steps" );
+    private float axisSize( View v, boolean measured ) {
+        if( engine.isVertical() )
+            return measured ? v.getMeasuredHeight() : v.getHeight();
+        return measured ? v.getMeasuredWidth() : v.getWidth();
+    }
 
-        if( steps[0] == steps[steps.length - 1] )
-            throw new RuntimeException( "First and last step are the same. See setSteps() documentation for more details" );
+    private void clearRelativeSteps() {
+        if( relativeSteps == null )
+            return;
 
-        if( direction == DragDirection.Down || direction == DragDirection.Right ) {
-            if( !isAsc( steps ) )
-                throw new RuntimeException( "Steps values are not correct for this direction" );
-        } else if( !isDesc( steps ) )
-            throw new RuntimeException( "Steps values are not correct for this direction" );
+        for( View v : new View[]{ stepsView, stepsParent, stepsAnchor } )
+            if( v != null )
+                v.removeOnLayoutChangeListener( stepsLayoutListener );
+        stepsView.removeCallbacks( stepsMoved );
+        pushPending = -1;
+        relativeSteps = null;
+        stepsView = stepsParent = stepsAnchor = null;
+        stepsDirty = false;
     }
 
-    private static float min( float a, float b, float c ) {
-        return Math.min( Math.min( a, b ), c );
+    /**
+     * @return false if steps are not resolved yet
+     */
+    private boolean startDrag( int pointerId, long time, float x, float y ) {
+        resolveSteps();
+        if( engine.getStepTable() == null )
+            return false;
+
+        pointers.down( pointerId, time, x, y );
+        touchDown = true;
+        engine.down( time, x, y );
+        touchDown = false;
+        return true;
     }
 
-    private static float max( float a, float b, float c ) {
-        return Math.max( Math.max( a, b ), c );
+    private void cancelPrediction() {
+        if( predictedStep < 0 )
+            return;
+
+        final int step = predictedStep;
+        predictedStep = -1;
+        // listener could be replaced during animation
+        if( swipeActionListener instanceof SwipeActionSettleListener )
+            ( (SwipeActionSettleListener) swipeActionListener ).onSettleCancelled( step, touchDown );
     }
 
-    private boolean isAsc( float[] tab ) {
-        for( int i = 1; i < tab.length; i++ )
-            if( tab[i - 1] > tab[i] )
-                return false;
-        return true;
+    /**
+     * Continues drag with pointer which took drive, with its own recent velocity.
+     */
+    private void handoff() {
+        if( pointers.getActivePointerId() >= 0 && engine.handoff( pointers.getX(), pointers.getY() ) )
+            pointers.fillVelocity( engine.getVelocityEstimator(), engine.isVertical() );
     }
 
-    private boolean isDesc( float[] tab ) {
-        for( int i = 1; i < tab.length; i++ )
-            if( tab[i - 1] < tab[i] )
-                return false;
-        return true;
+    /**
+     * Records samples of all tracked pointers and passes historical samples of active pointer
+     * batched in event to engine. Positions of pointers are relative to view, raw ones are
+     * recovered with offset of current sample of the first pointer, which is the same for whole
+     * event.
+     */
+    private void onMove( MotionEvent event, float offsetX, float offsetY ) {
+        final int history = event.getHistorySize();
+        final int active = event.findPointerIndex( pointers.getActivePointerId() );
+
+        for( int p = 0; p < event.getPointerCount(); p++ ) {
+            if( p == active )
+                continue;
+            final int id = event.getPointerId( p );
+            for( int h = 0; h < history; h++ )
+                pointers.move( id, event.getHistoricalEventTime( h ), event.getHistoricalX( p, h ) + offsetX, event.getHistoricalY( p, h ) + offsetY );
+            pointers.move( id, event.getEventTime(), event.getX( p ) + offsetX, event.getY( p ) + offsetY );
+        }
+
+        if( active < 0 )
+            return;
+
+        final int id = event.getPointerId( active );
+        if( history == 0 ) {
+            final float x = event.getX( active ) + offsetX;
+            final float y = event.getY( active ) + offsetY;
+            pointers.move( id, event.getEventTime(), x, y );
+            engine.move( event.getEventTime(), x, y );
+            return;
+        }
+
+        engine.beginBatch();
+        for( int h = 0; h <= history; h++ ) {
+            final long time = h < history ? event.getHistoricalEventTime( h ) : event.getEventTime();
+            final float x = ( h < history ? event.getHistoricalX( active, h ) : event.getX( active ) ) + offsetX;
+            final float y = ( h < history ? event.getHistoricalY( active, h ) : event.getY( active ) ) + offsetY;
+            pointers.move( id, time, x, y );
+            engine.move( time, x, y );
+        }
+        final int count = engine.endBatch();
+
+        if( count == 0 )
+            return;
+
+        if( swipeActionListener instanceof SwipeActionBatchListener ) {
+            if( group != null )
+                group.onDrag( this, engine.getBatch()[count - 1] );
+            if( dragStream != null )
+                dragStream.publishDrag( engine.getBatch()[count - 1], engine.getBatchFriction() );
+            applyBindings( engine.getBatch()[count - 1], engine.getBatchFriction() );
+            if( dragCoalescer != null )
+                dragCoalescer.flush();
+            ( (SwipeActionBatchListener) swipeActionListener ).onDragBatch( engine.getBatch(), count, engine.getBatchFriction() );
+        } else
+            engineCallback.onDrag( engine.getBatch()[count - 1], engine.getBatchFriction() );
     }
 }
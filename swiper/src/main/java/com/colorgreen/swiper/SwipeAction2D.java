@@ -0,0 +1,160 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.AnchorIndex;
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.SwipeEngine2D;
+import com.colorgreen.swiper.core.SwipePhysics;
+
+/**
+ * Drag on both axes which snaps to nearest of 2D anchors after release, for example floating
+ * widget which docks to corners or picker on map. Threshold has the same meaning as in
+ * {@link SwipeAction}: drag shorter than threshold part of distance to new anchor returns back.
+ * <p>
+ * Action is attached to view directly, it is not routed by {@link OnSwipeTouchListener}.
+ */
+public class SwipeAction2D implements View.OnTouchListener {
+
+    private SwipeAction2DListener listener;
+
+    private final SwipeEngine2D.Callback engineCallback = new SwipeEngine2D.Callback() {
+        @Override
+        public void onDragStart( float x, float y ) {
+            if( listener != null )
+                listener.onDragStart( x, y );
+        }
+
+        @Override
+        public void onDrag( float x, float y, float frictionX, float frictionY ) {
+            if( listener != null )
+                listener.onDrag( x, y, frictionX, frictionY );
+        }
+
+        @Override
+        public void onDragEnd( float x, float y ) {
+            if( listener != null )
+                listener.onDragEnd( x, y );
+        }
+
+        @Override
+        public void onFlingStart( float start, float velocity, float min, float max ) {
+            getLoop().start( engine, engine.getPhysics(), start, max, velocity, min, max );
+        }
+
+        @Override
+        public void onFlingCancel() {
+            getLoop().cancel( engine );
+        }
+    };
+
+    private final SwipeEngine2D engine = new SwipeEngine2D( engineCallback );
+
+    /**
+     * @param xs            x coordinates of anchors
+     * @param ys            y coordinates of anchors
+     * @param dragThreshold default threshold is 0.5f
+     */
+    public SwipeAction2D( float[] xs, float[] ys, float dragThreshold, SwipeAction2DListener listener ) {
+        setAnchors( new AnchorIndex( xs, ys ) );
+        setDragThreshold( dragThreshold );
+        this.listener = listener;
+    }
+
+    public void attachToView( View v ) {
+        v.setOnTouchListener( this );
+    }
+
+    @Override
+    public boolean onTouch( View v, MotionEvent event ) {
+        switch( event.getActionMasked() ) {
+            case MotionEvent.ACTION_DOWN:
+                engine.down( event.getEventTime(), event.getRawX(), event.getRawY() );
+                break;
+            case MotionEvent.ACTION_MOVE:
+                engine.move( event.getEventTime(), event.getRawX(), event.getRawY() );
+                break;
+            case MotionEvent.ACTION_UP:
+                engine.up( event.getEventTime(), event.getRawX(), event.getRawY() );
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                engine.cancel();
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Anchors are indexed once, so nearest one is found quickly also among hundreds of them.
+     * Value is moved to the first anchor.
+     */
+    public void setAnchors( AnchorIndex anchors ) {
+        engine.setAnchors( anchors );
+    }
+
+    public AnchorIndex getAnchors() {
+        return engine.getAnchors();
+    }
+
+    public void setDragThreshold( float dragThreshold ) {
+        engine.setDragThreshold( dragThreshold );
+    }
+
+    public float getDragThreshold() {
+        return engine.getDragThreshold();
+    }
+
+    /**
+     * @param physics motion of flings, {@link com.colorgreen.swiper.core.DecayPhysics#DEFAULT}
+     *                by default
+     */
+    public void setPhysics( SwipePhysics physics ) {
+        engine.setPhysics( physics );
+    }
+
+    public SwipePhysics getPhysics() {
+        return engine.getPhysics();
+    }
+
+    /**
+     * Animates value to anchor.
+     */
+    public void pushToAnchor( int index ) {
+        engine.pushToAnchor( index );
+    }
+
+    public int getAnchor() {
+        return engine.getAnchor();
+    }
+
+    public boolean isDragging() {
+        return engine.isDragging();
+    }
+
+    /**
+     * Stops running animation. Running drag or animation is finished on its anchor, so listener
+     * receives onDragEnd.
+     */
+    public void release() {
+        engine.settle();
+    }
+
+    public SwipeAction2DListener getListener() {
+        return listener;
+    }
+
+    public void setListener( SwipeAction2DListener listener ) {
+        this.listener = listener;
+    }
+
+    public SwipeEngine2D getEngine() {
+        return engine;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private AnimationLoop getLoop() {
+        return SwipeAnimator.getInstance().getLoop();
+    }
+}
@@ -0,0 +1,14 @@
+package com.colorgreen.swiper;
+
+public interface SwipeAction2DListener {
+
+    void onDragStart( float x, float y );
+
+    /**
+     * @param frictionX progress on x axis, 0 on leftmost anchor, 1 on rightmost one
+     * @param frictionY progress on y axis, 0 on top anchor, 1 on bottom one
+     */
+    void onDrag( float x, float y, float frictionX, float frictionY );
+
+    void onDragEnd( float x, float y );
+}
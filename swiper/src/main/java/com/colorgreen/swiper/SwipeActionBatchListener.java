@@ -0,0 +1,16 @@
+package com.colorgreen.swiper;
+
+/**
+ * Listener which receives all positions batched in one touch event at once. For touch events
+ * {@link #onDragBatch(float[], int, float)} is called instead of {@link #onDrag(float, float)},
+ * animation updates are still delivered with onDrag.
+ */
+public interface SwipeActionBatchListener extends SwipeActionListener {
+
+    /**
+     * @param values positions in order of occurrence, last one is current. Array is reused, it is
+     *               valid only during this call.
+     * @param count  number of valid positions in <code>values</code>
+     */
+    void onDragBatch( float[] values, int count, float totalFriction );
+}
@@ -0,0 +1,25 @@
+package com.colorgreen.swiper;
+
+/**
+ * Listener which learns where action will land as soon as animation starts, for example to load
+ * content of expanded panel while it is still moving. Prediction is reported on release of drag
+ * and from {@link SwipeAction#pushToStep(int)}, {@link SwipeAction#expand()} and
+ * {@link SwipeAction#collapse()}. It comes true with {@link #onDragEnd(float, float)} on the
+ * predicted step.
+ */
+public interface SwipeActionSettleListener extends SwipeActionListener {
+
+    /**
+     * @param step         index of step on which animation will settle
+     * @param settleMillis estimated time in milliseconds until it settles
+     */
+    void onSettlePredicted( int step, long settleMillis );
+
+    /**
+     * Animation predicted to settle on <code>step</code> was stopped before it settled. New
+     * prediction follows if it was replaced by other animation.
+     *
+     * @param byTouch true if animation was caught by finger
+     */
+    void onSettleCancelled( int step, boolean byTouch );
+}
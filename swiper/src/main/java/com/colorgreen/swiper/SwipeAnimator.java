@@ -0,0 +1,91 @@
+package com.colorgreen.swiper;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+
+/**
+ * Process wide driver of {@link AnimationLoop} on main thread. All actions animate in one frame
+ * callback, frames come from Choreographer, or from Handler below API 16.
+ */
+public final class SwipeAnimator {
+    private static final long FRAME_DELAY = 10;
+
+    private static SwipeAnimator instance;
+
+    private final AnimationLoop loop;
+
+    private SwipeAnimator() {
+        AnimationLoop.FrameRequester requester;
+        if( Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN )
+            requester = new ChoreographerFrames();
+        else
+            requester = new HandlerFrames();
+        loop = new AnimationLoop( requester );
+    }
+
+    /**
+     * Has to be called on main thread.
+     */
+    public static SwipeAnimator getInstance() {
+        if( instance == null )
+            instance = new SwipeAnimator();
+        return instance;
+    }
+
+    public AnimationLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * @return number of actions animating now
+     */
+    public int getActiveCount() {
+        return loop.getActiveCount();
+    }
+
+    /**
+     * @return duration of last frame of all animations, in nanoseconds
+     */
+    public long getLastFrameNanos() {
+        return loop.getLastFrameNanos();
+    }
+
+    @TargetApi( Build.VERSION_CODES.JELLY_BEAN )
+    private final class ChoreographerFrames implements AnimationLoop.FrameRequester, Choreographer.FrameCallback {
+        private final Choreographer choreographer = Choreographer.getInstance();
+
+        @Override
+        public void requestFrame() {
+            choreographer.postFrameCallback( this );
+        }
+
+        @Override
+        public void doFrame( long frameTimeNanos ) {
+            SwipeTrace.begin( SwipeTrace.FRAME );
+            loop.doFrame( frameTimeNanos / 1000000 );
+            SwipeTrace.end();
+        }
+    }
+
+    private final class HandlerFrames implements AnimationLoop.FrameRequester, Runnable {
+        private final Handler handler = new Handler( Looper.getMainLooper() );
+
+        @Override
+        public void requestFrame() {
+            handler.postDelayed( this, FRAME_DELAY );
+        }
+
+        @Override
+        public void run() {
+            SwipeTrace.begin( SwipeTrace.FRAME );
+            loop.doFrame( SystemClock.uptimeMillis() );
+            SwipeTrace.end();
+        }
+    }
+}
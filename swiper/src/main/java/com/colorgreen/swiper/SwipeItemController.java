@@ -0,0 +1,366 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.StepTable;
+import com.colorgreen.swiper.core.SwipeStateStore;
+
+import java.util.Arrays;
+
+/**
+ * Swipe of many items with the same steps, for example rows of RecyclerView keyed by stable id.
+ * State of items, step and blocked flag, is kept in bounded {@link SwipeStateStore}. Only items
+ * which are touched or animated have their own {@link SwipeAction}, actions are taken from small
+ * pool and returned when item settles.
+ * <p>
+ * Bind view in <code>onBindViewHolder</code> with {@link #bindView(View, long)}, listener then
+ * restores visual state of item with single onDrag call. State of items bound to views is never
+ * evicted from store.
+ */
+public class SwipeItemController {
+    public static final int DEFAULT_MAX_ITEMS = 512;
+
+    private final SwipeAction.DragDirection direction;
+    private final StepTable steps;
+    private final float dragThreshold;
+    private final SwipeStateStore store;
+
+    private SwipeItemListener listener;
+    private boolean singleOpen;
+
+    private View[] views = new View[8];
+    private long[] viewIds = new long[8];
+    private int viewCount;
+
+    private ActiveItem[] pool = new ActiveItem[0];
+
+    private final View.OnTouchListener touchListener = new View.OnTouchListener() {
+        @Override
+        public boolean onTouch( View v, MotionEvent event ) {
+            return SwipeItemController.this.onTouch( v, event );
+        }
+    };
+
+    public SwipeItemController( SwipeAction.DragDirection direction, float[] steps, float dragThreshold, SwipeItemListener listener ) {
+        this( direction, steps, dragThreshold, DEFAULT_MAX_ITEMS, listener );
+    }
+
+    /**
+     * @param maxItems maximum number of items which are not collapsed or are blocked, when there
+     *                 are more, least recently used item which is not bound is collapsed
+     */
+    public SwipeItemController( SwipeAction.DragDirection direction, float[] steps, float dragThreshold, int maxItems, SwipeItemListener listener ) {
+        this.direction = direction;
+        this.steps = new StepTable( steps );
+        this.dragThreshold = dragThreshold;
+        this.store = new SwipeStateStore( maxItems );
+        this.listener = listener;
+        store.setRetention( new SwipeStateStore.Retention() {
+            @Override
+            public boolean retains( long id ) {
+                return findView( id ) != null;
+            }
+        } );
+    }
+
+    /**
+     * Attaches view to item. View may be bound before to other item, it is detached from it.
+     * Listener receives onDrag with current value of item.
+     */
+    public void bindView( View view, long id ) {
+        int i = indexOfView( view );
+        if( i < 0 ) {
+            if( viewCount == views.length ) {
+                views = Arrays.copyOf( views, viewCount * 2 );
+                viewIds = Arrays.copyOf( viewIds, viewCount * 2 );
+            }
+            i = viewCount++;
+            views[i] = view;
+            view.setOnTouchListener( touchListener );
+        } else if( viewIds[i] != id ) {
+            final ActiveItem old = findActive( viewIds[i] );
+            if( old != null )
+                old.view = null;
+        }
+        viewIds[i] = id;
+
+        final ActiveItem active = findActive( id );
+        if( active != null ) {
+            active.view = view;
+            return;
+        }
+
+        final int stored = store.indexOf( id );
+        if( stored >= 0 )
+            store.touch( stored );
+
+        if( listener != null ) {
+            final float position = getPosition( id );
+            listener.onDrag( id, view, position, getFriction( position ) );
+        }
+    }
+
+    /**
+     * Detaches view, for example in <code>onViewRecycled</code>.
+     */
+    public void unbindView( View view ) {
+        final int i = indexOfView( view );
+        if( i < 0 )
+            return;
+
+        final ActiveItem active = findActive( viewIds[i] );
+        if( active != null )
+            active.view = null;
+
+        view.setOnTouchListener( null );
+        viewCount--;
+        views[i] = views[viewCount];
+        viewIds[i] = viewIds[viewCount];
+        views[viewCount] = null;
+    }
+
+    public int getStep( long id ) {
+        final ActiveItem active = findActive( id );
+        if( active != null )
+            return active.action.getStep();
+
+        final int i = store.indexOf( id );
+        return i >= 0 ? store.getStep( i ) : 0;
+    }
+
+    /**
+     * Moves item to step without animation, view bound to item receives onDrag. Item which is
+     * touched or animated now is animated to step.
+     */
+    public void setStep( long id, int stepIndex ) {
+        if( stepIndex < 0 || stepIndex >= steps.size() )
+            throw new RuntimeException( "Step " + stepIndex + " is out of steps" );
+
+        final ActiveItem active = findActive( id );
+        if( active != null ) {
+            active.action.pushToStep( stepIndex );
+            return;
+        }
+
+        store.put( id, stepIndex, steps.get( stepIndex ), isBlocked( id ) );
+        final View view = findView( id );
+        if( view != null && listener != null )
+            listener.onDrag( id, view, steps.get( stepIndex ), getFriction( steps.get( stepIndex ) ) );
+        if( singleOpen && stepIndex != 0 )
+            collapseOthers( id );
+    }
+
+    public boolean isBlocked( long id ) {
+        final int i = store.indexOf( id );
+        return i >= 0 && store.isBlocked( i );
+    }
+
+    public void setBlocked( long id, boolean blocked ) {
+        final int i = store.indexOf( id );
+        final int step = i >= 0 ? store.getStep( i ) : 0;
+        store.put( id, step, steps.get( step ), blocked );
+    }
+
+    /**
+     * Collapses all items without animation and unblocks them, for example when data set changes.
+     * Items which are touched or animated now are animated to first step.
+     */
+    public void reset() {
+        store.clear();
+        for( ActiveItem item : pool )
+            if( item.isActive() )
+                item.action.collapse();
+
+        if( listener != null )
+            for( int i = 0; i < viewCount; i++ )
+                if( findActive( viewIds[i] ) == null )
+                    listener.onDrag( viewIds[i], views[i], steps.getFirst(), 0 );
+    }
+
+    /**
+     * @param singleOpen true if only one item can be open, when item settles out of first step,
+     *                   other items are collapsed. Settled items are collapsed without animation,
+     *                   animated ones are animated to first step.
+     */
+    public void setSingleOpen( boolean singleOpen ) {
+        this.singleOpen = singleOpen;
+    }
+
+    public boolean isSingleOpen() {
+        return singleOpen;
+    }
+
+    public void setListener( SwipeItemListener listener ) {
+        this.listener = listener;
+    }
+
+    public SwipeItemListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return number of items which are touched or animated now
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for( ActiveItem item : pool )
+            if( item.isActive() )
+                count++;
+        return count;
+    }
+
+    /**
+     * @return number of pooled actions, at least maximum number of items animated at once
+     */
+    public int getPoolSize() {
+        return pool.length;
+    }
+
+    public SwipeStateStore getStore() {
+        return store;
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private boolean onTouch( View v, MotionEvent event ) {
+        final int i = indexOfView( v );
+        if( i < 0 )
+            return false;
+        final long id = viewIds[i];
+
+        ActiveItem item = findActive( id );
+        if( event.getActionMasked() == MotionEvent.ACTION_DOWN ) {
+            if( item == null ) {
+                if( isBlocked( id ) )
+                    return false;
+                item = acquire( id );
+            }
+            item.view = v;
+        }
+
+        if( item == null )
+            return false;
+
+        if( event.getActionMasked() == MotionEvent.ACTION_CANCEL )
+            item.action.cancelTouch( event.getEventTime() );
+        else
+            item.action.onTouch( v, event );
+        return true;
+    }
+
+    private ActiveItem acquire( long id ) {
+        ActiveItem item = null;
+        for( ActiveItem it : pool )
+            if( !it.isActive() ) {
+                item = it;
+                break;
+            }
+
+        if( item == null ) {
+            item = new ActiveItem();
+            pool = Arrays.copyOf( pool, pool.length + 1 );
+            pool[pool.length - 1] = item;
+        }
+
+        final int i = store.indexOf( id );
+        item.id = id;
+        item.action.setStep( i >= 0 ? store.getStep( i ) : 0 );
+        return item;
+    }
+
+    private ActiveItem findActive( long id ) {
+        for( ActiveItem item : pool )
+            if( item.isActive() && item.id == id )
+                return item;
+        return null;
+    }
+
+    private int indexOfView( View view ) {
+        for( int i = 0; i < viewCount; i++ )
+            if( views[i] == view )
+                return i;
+        return -1;
+    }
+
+    private View findView( long id ) {
+        for( int i = 0; i < viewCount; i++ )
+            if( viewIds[i] == id )
+                return views[i];
+        return null;
+    }
+
+    private float getPosition( long id ) {
+        final int i = store.indexOf( id );
+        return i >= 0 ? store.getPosition( i ) : steps.getFirst();
+    }
+
+    private void collapseOthers( long id ) {
+        for( ActiveItem item : pool )
+            if( item.isActive() && item.id != id && item.action.getEngine().isFlinging() )
+                item.action.collapse();
+
+        // backwards, collapsed item is removed from store
+        for( int i = store.size() - 1; i >= 0; i-- ) {
+            final long other = store.keyAt( i );
+            if( other == id || store.getStep( i ) == 0 || findActive( other ) != null )
+                continue;
+
+            store.put( other, 0, steps.getFirst(), store.isBlocked( i ) );
+            final View view = findView( other );
+            if( view != null && listener != null )
+                listener.onDrag( other, view, steps.getFirst(), 0 );
+        }
+    }
+
+    private float getFriction( float position ) {
+        return Math.abs( ( position - steps.getFirst() ) / ( steps.getLast() - steps.getFirst() ) );
+    }
+
+    /**
+     * Gesture and animation machinery of one item, reused by other items when settled.
+     */
+    private final class ActiveItem implements SwipeActionListener {
+        static final long NONE = Long.MIN_VALUE;
+
+        final SwipeAction action;
+        long id = NONE;
+        View view;
+
+        ActiveItem() {
+            action = new SwipeAction( this );
+            action.setDirection( direction );
+            action.setStepTable( steps );
+            action.setDragThreshold( dragThreshold );
+        }
+
+        boolean isActive() {
+            return id != NONE;
+        }
+
+        @Override
+        public void onDragStart( float val, float totalFriction ) {
+            if( listener != null )
+                listener.onDragStart( id, view, val, totalFriction );
+        }
+
+        @Override
+        public void onDrag( float val, float totalFriction ) {
+            if( listener != null )
+                listener.onDrag( id, view, val, totalFriction );
+        }
+
+        @Override
+        public void onDragEnd( float val, float totalFriction ) {
+            final long settled = id;
+            store.put( settled, action.getStep(), val, isBlocked( settled ) );
+            id = NONE;
+            view = null;
+
+            if( listener != null )
+                listener.onDragEnd( settled, findView( settled ), val, totalFriction );
+            if( singleOpen && action.getStep() != 0 )
+                collapseOthers( settled );
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.colorgreen.swiper;
+
+import android.view.View;
+
+/**
+ * Listener of items of {@link SwipeItemController}. View is null when item was animating and its
+ * view has been rebound to other item meanwhile.
+ */
+public interface SwipeItemListener {
+
+    void onDragStart( long id, View view, float val, float totalFriction );
+
+    void onDrag( long id, View view, float val, float totalFriction );
+
+    void onDragEnd( long id, View view, float val, float totalFriction );
+}
@@ -0,0 +1,325 @@
+package com.colorgreen.swiper;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.v4.view.NestedScrollingParent;
+import android.support.v4.view.NestedScrollingParentHelper;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.widget.FrameLayout;
+
+import com.colorgreen.swiper.core.StepTable;
+import com.colorgreen.swiper.core.SwipeEngine;
+
+/**
+ * Container which runs swipe actions without stealing touches of its children. Gesture is watched
+ * from {@link #onInterceptTouchEvent(MotionEvent)} and claimed only when finger moves over touch
+ * slop in direction which some action accepts, children then receive ACTION_CANCEL. Until then
+ * clicks and scrolls of children work as usual. Touch on running animation claims gesture
+ * immediately, so panel can be caught.
+ * <p>
+ * When child scrolls with nested scrolling, for example RecyclerView, layout is its
+ * NestedScrollingParent: movement which opens an action ( towards its later steps ) is consumed
+ * by action before child scrolls, the rest which child did not consume moves action back. Each
+ * event is passed to actions once, either from touch or from nested scroll. Actions on the other
+ * axis than nested scroll still claim gestures from touches.
+ */
+public class SwipeLayout extends FrameLayout implements NestedScrollingParent {
+
+    private final OnSwipeTouchListener swipeListener = new OnSwipeTouchListener();
+    private final NestedScrollingParentHelper nestedHelper = new NestedScrollingParentHelper( this );
+    private final int touchSlop;
+
+    private MotionEvent downEvent;
+    private boolean claimed;
+    private boolean ignored;
+
+    private SwipeAction nestedAction;
+    private float nestedX;
+    private float nestedY;
+    private boolean nestedDragged;
+
+    public SwipeLayout( Context context ) {
+        this( context, null );
+    }
+
+    public SwipeLayout( Context context, AttributeSet attrs ) {
+        this( context, attrs, 0 );
+    }
+
+    public SwipeLayout( Context context, AttributeSet attrs, int defStyleAttr ) {
+        super( context, attrs, defStyleAttr );
+        touchSlop = ViewConfiguration.get( context ).getScaledTouchSlop();
+        swipeListener.setTouchSlop( touchSlop );
+    }
+
+    public void addAction( SwipeAction action ) {
+        swipeListener.addAction( action );
+    }
+
+    /**
+     * @return listener which routes claimed gestures, for example to add exclusion groups
+     */
+    public OnSwipeTouchListener getSwipeListener() {
+        return swipeListener;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent( MotionEvent ev ) {
+        return watch( ev );
+    }
+
+    @Override
+    public boolean onTouchEvent( MotionEvent event ) {
+        if( claimed ) {
+            swipeListener.onTouch( this, event );
+            if( isGestureEnd( event ) )
+                reset();
+            return true;
+        }
+
+        // ACTION_DOWN on running animation, delivered here also when intercepted
+        if( watch( event ) && event.getActionMasked() == MotionEvent.ACTION_DOWN )
+            claim( null );
+        // keep receiving events of gesture which no child took
+        return !ignored || event.getActionMasked() == MotionEvent.ACTION_DOWN;
+    }
+
+    @Override
+    public boolean onStartNestedScroll( View child, View target, int axes ) {
+        return ( ( axes & ViewCompat.SCROLL_AXIS_VERTICAL ) != 0 && nestedActionFor( true, 0 ) != null )
+                || ( ( axes & ViewCompat.SCROLL_AXIS_HORIZONTAL ) != 0 && nestedActionFor( false, 0 ) != null );
+    }
+
+    @Override
+    public void onNestedScrollAccepted( View child, View target, int axes ) {
+        nestedHelper.onNestedScrollAccepted( child, target, axes );
+        nestedAction = null;
+        nestedDragged = false;
+        nestedX = nestedY = 0;
+    }
+
+    @Override
+    public void onNestedPreScroll( View target, int dx, int dy, int[] consumed ) {
+        // scroll delta is opposite to finger movement
+        if( dy != 0 )
+            consumed[1] = nestedDrag( true, -dy, true );
+        else if( dx != 0 )
+            consumed[0] = nestedDrag( false, -dx, true );
+    }
+
+    @Override
+    public void onNestedScroll( View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed ) {
+        if( dyUnconsumed != 0 )
+            nestedDrag( true, -dyUnconsumed, false );
+        else if( dxUnconsumed != 0 )
+            nestedDrag( false, -dxUnconsumed, false );
+    }
+
+    @Override
+    public boolean onNestedPreFling( View target, float velocityX, float velocityY ) {
+        if( !nestedDragged || !nestedAction.isDragging() )
+            return false;
+
+        final float velocity = nestedAction.getEngine().isVertical() ? -velocityY : -velocityX;
+        nestedAction.dragUp( SystemClock.uptimeMillis(), nestedX, nestedY, velocity );
+        return true;
+    }
+
+    @Override
+    public boolean onNestedFling( View target, float velocityX, float velocityY, boolean consumed ) {
+        return false;
+    }
+
+    @Override
+    public void onStopNestedScroll( View target ) {
+        nestedHelper.onStopNestedScroll( target );
+        if( nestedDragged && nestedAction.isDragging() && !nestedAction.getEngine().isFlinging() )
+            nestedAction.dragUp( SystemClock.uptimeMillis(), nestedX, nestedY, Float.NaN );
+        nestedAction = null;
+        nestedDragged = false;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return nestedHelper.getNestedScrollAxes();
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    /**
+     * Watches gesture which is not claimed yet.
+     *
+     * @return true if gesture has been claimed now, or if ACTION_DOWN should be claimed
+     */
+    private boolean watch( MotionEvent ev ) {
+        switch( ev.getActionMasked() ) {
+            case MotionEvent.ACTION_DOWN:
+                // the same ACTION_DOWN comes to onTouchEvent after onInterceptTouchEvent
+                if( downEvent == null || downEvent.getDownTime() != ev.getDownTime() ) {
+                    reset();
+                    downEvent = MotionEvent.obtain( ev );
+                }
+                return isAnimating();
+
+            case MotionEvent.ACTION_MOVE:
+                if( claimed || ignored || downEvent == null )
+                    return claimed;
+
+                final float dx = ev.getRawX() - downEvent.getRawX();
+                final float dy = ev.getRawY() - downEvent.getRawY();
+                if( Math.abs( dx ) <= touchSlop && Math.abs( dy ) <= touchSlop )
+                    return false;
+
+                final boolean vertical = Math.abs( dy ) > Math.abs( dx );
+                if( acceptingAction( vertical, vertical ? dy : dx ) == null ) {
+                    ignored = true;
+                    return false;
+                }
+                return claim( ev );
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                reset();
+                return false;
+        }
+        return false;
+    }
+
+    /**
+     * Passes delayed ACTION_DOWN and current event to actions, rest of gesture goes through
+     * {@link #onTouchEvent(MotionEvent)}.
+     */
+    private boolean claim( MotionEvent ev ) {
+        claimed = true;
+        if( getParent() != null )
+            getParent().requestDisallowInterceptTouchEvent( true );
+
+        swipeListener.onTouch( this, downEvent );
+        if( ev != null )
+            swipeListener.onTouch( this, ev );
+        return true;
+    }
+
+    private static boolean isGestureEnd( MotionEvent event ) {
+        return event.getActionMasked() == MotionEvent.ACTION_UP || event.getActionMasked() == MotionEvent.ACTION_CANCEL;
+    }
+
+    private void reset() {
+        claimed = false;
+        ignored = false;
+        if( downEvent != null ) {
+            downEvent.recycle();
+            downEvent = null;
+        }
+    }
+
+    private boolean isAnimating() {
+        for( int i = 0; i < swipeListener.getActionCount(); i++ ) {
+            final SwipeAction action = swipeListener.getAction( i );
+            if( action.getEngine().isFlinging() && isTouchable( action ) )
+                return true;
+        }
+        return false;
+    }
+
+    private SwipeAction acceptingAction( boolean vertical, float delta ) {
+        for( int i = 0; i < swipeListener.getActionCount(); i++ ) {
+            final SwipeAction action = swipeListener.getAction( i );
+            if( isTouchable( action ) && action.accepts( vertical, delta ) )
+                return action;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if action can claim touches, actions on axis of running nested scroll are
+     * moved only by nested scroll
+     */
+    private boolean isTouchable( SwipeAction action ) {
+        final int axis = action.getEngine().isVertical() ? ViewCompat.SCROLL_AXIS_VERTICAL : ViewCompat.SCROLL_AXIS_HORIZONTAL;
+        return !action.isBlocked() && !action.isSuspended() && ( nestedHelper.getNestedScrollAxes() & axis ) == 0;
+    }
+
+    /**
+     * @param delta 0 to find any action on axis
+     */
+    private SwipeAction nestedActionFor( boolean vertical, float delta ) {
+        for( int i = 0; i < swipeListener.getActionCount(); i++ ) {
+            final SwipeAction action = swipeListener.getAction( i );
+            if( action.isBlocked() || action.isSuspended() || action.getEngine().isVertical() != vertical )
+                continue;
+            if( delta == 0 || action.accepts( vertical, delta ) )
+                return action;
+        }
+        return null;
+    }
+
+    /**
+     * Moves action of nested scroll by finger movement. Drag is passed through
+     * {@link SwipeAction}, when it reaches step and movement continues, drag is settled on that
+     * step and continues over following steps.
+     *
+     * @param forwardOnly true if only movement towards later steps is taken
+     * @return part of delta which action consumed
+     */
+    private int nestedDrag( boolean vertical, int delta, boolean forwardOnly ) {
+        if( nestedAction == null ) {
+            nestedAction = nestedActionFor( vertical, delta );
+            if( nestedAction == null )
+                return 0;
+        }
+
+        final SwipeEngine engine = nestedAction.getEngine();
+        if( engine.isVertical() != vertical || engine.isFlinging() )
+            return 0;
+        if( forwardOnly && ( engine.isDescending() ? -delta : delta ) < 0 )
+            return 0;
+        if( !nestedAction.accepts( vertical, delta ) )
+            return 0;
+
+        final long time = SystemClock.uptimeMillis();
+        float remaining = delta;
+        while( remaining != 0 ) {
+            if( !nestedDragged || !engine.isDragging() ) {
+                if( !nestedAction.dragDown( time, nestedX, nestedY ) )
+                    break;
+                nestedDragged = true;
+            }
+
+            // engine ignores moves out of steps around current one, so movement is cut at them
+            final StepTable steps = engine.getStepTable();
+            final int step = engine.getStep();
+            final float a = steps.get( step == 0 ? 0 : step - 1 );
+            final float b = steps.get( step + 1 == steps.size() ? step : step + 1 );
+            final float before = engine.getPosition();
+            final float target = before + remaining;
+            final float after = Math.max( Math.min( a, b ), Math.min( Math.max( a, b ), target ) );
+            final float moved = after - before;
+            if( moved == 0 )
+                break;
+
+            if( vertical )
+                nestedY += moved;
+            else
+                nestedX += moved;
+            nestedAction.dragMove( time, nestedX, nestedY );
+
+            if( after == target ) {
+                remaining = 0;
+                break;
+            }
+            remaining -= moved;
+            // first or last step
+            if( after == steps.get( step ) )
+                break;
+            nestedAction.dragSettle();
+        }
+
+        // scroll units are opposite to finger movement
+        return -Math.round( delta - remaining );
+    }
+}
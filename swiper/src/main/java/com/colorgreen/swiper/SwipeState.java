@@ -0,0 +1,65 @@
+package com.colorgreen.swiper;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * Snapshot of actions of {@link OnSwipeTouchListener}, in order in which they were added. For every
+ * action it keeps step on which it is settled, or to which it is animated, number of its steps
+ * and progress of that step from first to last one. Progress is used only when number of steps
+ * changed.
+ *
+ * @see OnSwipeTouchListener#saveState()
+ */
+public final class SwipeState implements Parcelable {
+
+    private final int[] steps;
+    private final int[] stepCounts;
+    private final float[] frictions;
+
+    SwipeState( int[] steps, int[] stepCounts, float[] frictions ) {
+        this.steps = steps;
+        this.stepCounts = stepCounts;
+        this.frictions = frictions;
+    }
+
+    public int size() {
+        return steps.length;
+    }
+
+    public int getStep( int i ) {
+        return steps[i];
+    }
+
+    public int getStepCount( int i ) {
+        return stepCounts[i];
+    }
+
+    public float getFriction( int i ) {
+        return frictions[i];
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel( Parcel dest, int flags ) {
+        dest.writeIntArray( steps );
+        dest.writeIntArray( stepCounts );
+        dest.writeFloatArray( frictions );
+    }
+
+    public static final Creator< SwipeState > CREATOR = new Creator< SwipeState >() {
+        @Override
+        public SwipeState createFromParcel( Parcel source ) {
+            return new SwipeState( source.createIntArray(), source.createIntArray(), source.createFloatArray() );
+        }
+
+        @Override
+        public SwipeState[] newArray( int size ) {
+            return new SwipeState[size];
+        }
+    };
+}
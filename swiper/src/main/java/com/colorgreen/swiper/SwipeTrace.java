@@ -0,0 +1,41 @@
+package com.colorgreen.swiper;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Systrace sections of hot path, they are visible in systrace and Android Studio profiler.
+ * Sections are skipped below API 18.
+ */
+final class SwipeTrace {
+    static final String TOUCH = "SwipeTouch";
+    static final String ACTION_TOUCH = "SwipeAction.onTouch";
+    static final String CALLBACK = "SwipeActionListener";
+    static final String FRAME = "SwipeAnimator.frame";
+
+    private static final boolean ENABLED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private SwipeTrace() {
+    }
+
+    static void begin( String section ) {
+        if( ENABLED )
+            beginSection( section );
+    }
+
+    static void end() {
+        if( ENABLED )
+            endSection();
+    }
+
+    @TargetApi( Build.VERSION_CODES.JELLY_BEAN_MR2 )
+    private static void beginSection( String section ) {
+        Trace.beginSection( section );
+    }
+
+    @TargetApi( Build.VERSION_CODES.JELLY_BEAN_MR2 )
+    private static void endSection() {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,93 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+
+import com.colorgreen.swiper.core.VelocityEstimator;
+
+/**
+ * {@link VelocityEstimator} backed by framework {@link VelocityTracker}. Default estimator of
+ * {@link SwipeAction}.
+ * <p>
+ * Samples are kept in primitive ring buffer as long as history of tracker, so adding them does
+ * not allocate. Tracker receives them only when velocity is needed, batched in one pooled
+ * MotionEvent, which is recycled right after use.
+ */
+public class TrackerVelocityEstimator implements VelocityEstimator {
+    /** The same number of samples as framework tracker keeps. */
+    private static final int HISTORY = 20;
+
+    private final long[] times = new long[HISTORY];
+    private final float[] positions = new float[HISTORY];
+    private int start;
+    private int size;
+
+    private final MotionEvent.PointerProperties[] properties = { new MotionEvent.PointerProperties() };
+    private final MotionEvent.PointerCoords[] coords = { new MotionEvent.PointerCoords() };
+    private VelocityTracker velocityTracker;
+
+    public TrackerVelocityEstimator() {
+        properties[0].toolType = MotionEvent.TOOL_TYPE_FINGER;
+    }
+
+    @Override
+    public void clear() {
+        start = size = 0;
+    }
+
+    @Override
+    public void addSample( long time, float position ) {
+        int i = start + size;
+        if( size == HISTORY )
+            start = ( start + 1 ) % HISTORY;
+        else
+            size++;
+        i %= HISTORY;
+
+        times[i] = time;
+        positions[i] = position;
+    }
+
+    @Override
+    public float getVelocity() {
+        if( size == 0 )
+            return 0;
+        if( velocityTracker == null )
+            velocityTracker = VelocityTracker.obtain();
+
+        velocityTracker.clear();
+        setCoords( start );
+        final MotionEvent event = MotionEvent.obtain( times[start], times[start], MotionEvent.ACTION_MOVE,
+                1, properties, coords, 0, 0, 1, 1, 0, 0, 0, 0 );
+        for( int k = 1; k < size; k++ ) {
+            final int i = ( start + k ) % HISTORY;
+            setCoords( i );
+            event.addBatch( times[i], coords, 0 );
+        }
+        velocityTracker.addMovement( event );
+        event.recycle();
+
+        velocityTracker.computeCurrentVelocity( 1000 );
+        return velocityTracker.getYVelocity();
+    }
+
+    /**
+     * Recycles tracker. Estimator can be still used, tracker is obtained again when velocity is
+     * needed.
+     */
+    public void recycle() {
+        if( velocityTracker != null ) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private void setCoords( int i ) {
+        coords[0].x = positions[i];
+        coords[0].y = positions[i];
+        coords[0].pressure = 1;
+        coords[0].size = 1;
+    }
+}
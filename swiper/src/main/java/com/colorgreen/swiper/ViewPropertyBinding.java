@@ -0,0 +1,113 @@
+package com.colorgreen.swiper;
+
+import android.annotation.TargetApi;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+
+import com.colorgreen.swiper.core.FloatLut;
+
+/**
+ * Binds value of {@link SwipeAction} to render property of view. Properties are applied to view's
+ * render node, they only invalidate view and never request measure or layout, unlike changing
+ * layout params in {@link SwipeActionListener#onDrag(float, float)}.
+ * <p>
+ * Binding follows drag value, or maps total friction ( 0 on first step, 1 on last ) linearly from
+ * <code>from</code> to <code>to</code> or through precomputed {@link FloatLut}.
+ */
+public final class ViewPropertyBinding implements DragBinding {
+
+    public enum Property {
+        X, Y, TRANSLATION_X, TRANSLATION_Y, SCALE_X, SCALE_Y, ALPHA,
+        /** Requires API 21. */
+        ELEVATION,
+        /** Clips view to width equal to value, from left edge. Requires API 18. */
+        CLIP_WIDTH,
+        /** Clips view to height equal to value, from top edge. Requires API 18. */
+        CLIP_HEIGHT
+    }
+
+    private final View view;
+    private final Property property;
+    private final FloatLut lut;
+    private final Rect clip;
+
+    /**
+     * @param lut table sampled with total friction, or null if property follows drag value
+     */
+    ViewPropertyBinding( View view, Property property, FloatLut lut ) {
+        if( ( property == Property.CLIP_WIDTH || property == Property.CLIP_HEIGHT )
+                && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2 )
+            throw new RuntimeException( "Clip bounds binding requires API 18" );
+        if( property == Property.ELEVATION && Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP )
+            throw new RuntimeException( "Elevation binding requires API 21" );
+
+        this.view = view;
+        this.property = property;
+        this.lut = lut;
+        this.clip = new Rect();
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    @Override
+    public boolean isBoundTo( Object target ) {
+        return target == view;
+    }
+
+    @Override
+    public void apply( float val, float totalFriction ) {
+        final float value = lut != null ? lut.sample( totalFriction ) : val;
+
+        switch( property ) {
+            case X:
+                view.setX( value );
+                break;
+            case Y:
+                view.setY( value );
+                break;
+            case TRANSLATION_X:
+                view.setTranslationX( value );
+                break;
+            case TRANSLATION_Y:
+                view.setTranslationY( value );
+                break;
+            case SCALE_X:
+                view.setScaleX( value );
+                break;
+            case SCALE_Y:
+                view.setScaleY( value );
+                break;
+            case ALPHA:
+                view.setAlpha( value );
+                break;
+            case ELEVATION:
+                setElevation( value );
+                break;
+            case CLIP_WIDTH:
+                clip.set( 0, 0, (int) value, view.getHeight() );
+                setClipBounds();
+                break;
+            case CLIP_HEIGHT:
+                clip.set( 0, 0, view.getWidth(), (int) value );
+                setClipBounds();
+                break;
+        }
+    }
+
+    @TargetApi( Build.VERSION_CODES.LOLLIPOP )
+    private void setElevation( float value ) {
+        view.setElevation( value );
+    }
+
+    @TargetApi( Build.VERSION_CODES.JELLY_BEAN_MR2 )
+    private void setClipBounds() {
+        view.setClipBounds( clip );
+    }
+}
@@ -0,0 +1,131 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Frames are driven by hand, main looper is paused so posted frame callbacks do not run.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class DragCoalescerTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private AnimationLoop loop;
+    private SwipeAction action;
+
+    @Before
+    public void setUp() {
+        ShadowLooper.pauseMainLooper();
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, new SwipeActionListener() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {
+                log.append( "start " );
+            }
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                log.append( "drag" ).append( Math.round( val ) ).append( ' ' );
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {
+                log.append( "end " );
+            }
+        } );
+        action.setAnimationLoop( loop );
+    }
+
+    @Test
+    public void moves_becomeOneCallbackWithLatestValue() {
+        DragCoalescer coalescer = new DragCoalescer( action );
+        coalescer.post( 10, 0 );
+        coalescer.post( 20, 0 );
+        coalescer.post( 30, 0.05f );
+        assertEquals( "", log.toString() );
+
+        coalescer.doFrame( 0 );
+        assertEquals( "drag30 ", log.toString() );
+        assertEquals( 2, coalescer.getCoalescedCount() );
+
+        coalescer.post( 40, 0 );
+        coalescer.doFrame( 16 );
+        assertEquals( "drag30 drag40 ", log.toString() );
+    }
+
+    @Test
+    public void flush_deliversPendingValueOnce() {
+        DragCoalescer coalescer = new DragCoalescer( action );
+        coalescer.flush();
+        assertEquals( "", log.toString() );
+
+        coalescer.post( 10, 0 );
+        coalescer.post( 20, 0 );
+        coalescer.flush();
+        coalescer.flush();
+        assertEquals( "drag20 ", log.toString() );
+    }
+
+    @Test
+    public void dragEnd_flushesLatestValueBeforeEnd() {
+        action.setCoalesceDragUpdates( true );
+        touch( MotionEvent.ACTION_DOWN, 0, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 150 );
+        touch( MotionEvent.ACTION_MOVE, 32, 180 );
+        assertEquals( "start ", log.toString() );
+
+        // drag is finished on nearest step without up
+        action.release();
+        assertEquals( "start drag0 end ", log.toString() );
+    }
+
+    @Test
+    public void cancel_flushesLatestValueOfFlingBeforeEnd() {
+        action.setCoalesceDragUpdates( true );
+        touch( MotionEvent.ACTION_DOWN, 0, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 150 );
+        touch( MotionEvent.ACTION_CANCEL, 32, 150 );
+
+        long time = 0;
+        loop.doFrame( time );
+        while( loop.getActiveCount() > 0 )
+            loop.doFrame( time += 16 );
+
+        assertEquals( "start drag0 end ", log.toString() );
+        assertEquals( 0, action.getStep() );
+    }
+
+    @Test
+    public void disablingCoalescing_flushesPendingValue() {
+        action.setCoalesceDragUpdates( true );
+        touch( MotionEvent.ACTION_DOWN, 0, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 150 );
+
+        action.setCoalesceDragUpdates( false );
+        assertEquals( "start drag50 ", log.toString() );
+
+        touch( MotionEvent.ACTION_MOVE, 32, 160 );
+        assertEquals( "start drag50 drag60 ", log.toString() );
+    }
+
+    private void touch( int type, long time, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, type, 100, y, 0 );
+        action.onTouch( null, event );
+        event.recycle();
+    }
+}
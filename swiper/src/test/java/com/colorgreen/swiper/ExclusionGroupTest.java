@@ -0,0 +1,71 @@
+package com.colorgreen.swiper;
+
+import com.colorgreen.swiper.core.GestureRecorder;
+import com.colorgreen.swiper.core.LeastSquaresVelocityEstimator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class ExclusionGroupTest {
+
+    private OnSwipeTouchListener listener;
+    private SwipeAction top;
+    private SwipeAction bottom;
+    private ExclusionGroup group;
+
+    @Before
+    public void setUp() {
+        top = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, null );
+        bottom = new SwipeAction( SwipeAction.DragDirection.Up, new float[]{ 600, 300, 0 }, 0.5f, null );
+        top.setVelocityEstimator( new LeastSquaresVelocityEstimator() );
+        bottom.setVelocityEstimator( new LeastSquaresVelocityEstimator() );
+
+        listener = new OnSwipeTouchListener();
+        listener.addAction( top );
+        listener.addAction( bottom );
+        group = listener.addExclusionGroup( top, bottom );
+    }
+
+    @Test
+    public void openMember_suspendsOthersUntilCollapsed() {
+        new GestureReplay( drag( 0, 25 ) ).replay( listener );
+
+        assertEquals( 1, top.getStep() );
+        assertEquals( ExclusionGroup.State.OPEN, group.getState() );
+        assertTrue( bottom.isSuspended() );
+        assertFalse( top.isSuspended() );
+
+        // upward drag would open bottom, but only top receives it
+        new GestureReplay( drag( 1000, -25 ) ).replay( listener );
+
+        assertEquals( 0, top.getStep() );
+        assertEquals( 0, bottom.getStep() );
+        assertEquals( ExclusionGroup.State.IDLE, group.getState() );
+        assertNull( group.getOwner() );
+        assertFalse( bottom.isSuspended() );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void groupingActionTwice_throws() {
+        listener.addExclusionGroup( top );
+    }
+
+    private static GestureRecorder drag( long start, float step ) {
+        GestureRecorder recording = new GestureRecorder( 16 );
+        recording.record( GestureRecorder.ACTION_DOWN, start, 200, 500 );
+        for( int i = 1; i <= 10; i++ )
+            recording.record( GestureRecorder.ACTION_MOVE, start + i * 8, 200, 500 + i * step );
+        recording.record( GestureRecorder.ACTION_UP, start + 88, 200, 500 + 10 * step );
+        return recording;
+    }
+}
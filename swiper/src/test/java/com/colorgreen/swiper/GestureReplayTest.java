@@ -0,0 +1,150 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.GestureRecorder;
+import com.colorgreen.swiper.core.LeastSquaresVelocityEstimator;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class GestureReplayTest {
+
+    private final StringBuilder log = new StringBuilder();
+
+    @Test
+    public void recordedFling_replaysToSameStep() throws IOException {
+        OnSwipeTouchListener listener = new OnSwipeTouchListener();
+        listener.addAction( newAction() );
+        listener.setGestureRecorder( new GestureRecorder( 256 ) );
+
+        send( listener, MotionEvent.ACTION_DOWN, 0, 500 );
+        for( int i = 1; i <= 10; i++ )
+            send( listener, MotionEvent.ACTION_MOVE, i * 8, 500 + i * 25 );
+        send( listener, MotionEvent.ACTION_UP, 88, 750 );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listener.getGestureRecorder().writeTo( out );
+        GestureRecorder recording = GestureRecorder.readFrom( new ByteArrayInputStream( out.toByteArray() ) );
+        assertEquals( 12, recording.size() );
+
+        SwipeAction first = newAction();
+        GestureReplay replay = new GestureReplay( recording );
+        replay.replay( first );
+
+        SwipeAction second = newAction();
+        GestureReplay again = new GestureReplay( recording );
+        again.replay( second );
+
+        assertEquals( 1, first.getStep() );
+        assertFalse( first.getEngine().isFlinging() );
+        assertEquals( 300, first.getEngine().getPosition(), 0 );
+        assertEquals( first.getStep(), second.getStep() );
+        assertEquals( replay.getLoop().getFrameCount(), again.getLoop().getFrameCount() );
+        assertEquals( replay.getTime(), again.getTime() );
+    }
+
+    @Test
+    public void recordedHandoff_replaysSameDrag() throws IOException {
+        OnSwipeTouchListener listener = new OnSwipeTouchListener();
+        SwipeAction live = loggingAction();
+        live.setAnimationLoop( new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } ) );
+        listener.setTouchSlop( 8 );
+        listener.addAction( live );
+        listener.setGestureRecorder( new GestureRecorder( 256 ) );
+
+        send( listener, MotionEvent.ACTION_DOWN, 0, new int[]{ 0 }, 500 );
+        send( listener, MotionEvent.ACTION_MOVE, 8, new int[]{ 0 }, 580 );
+        send( listener, pointerAction( MotionEvent.ACTION_POINTER_DOWN, 1 ), 16, new int[]{ 0, 3 }, 580, 900 );
+        send( listener, MotionEvent.ACTION_MOVE, 24, new int[]{ 0, 3 }, 580, 950 );
+        send( listener, MotionEvent.ACTION_MOVE, 32, new int[]{ 0, 3 }, 580, 1000 );
+        send( listener, pointerAction( MotionEvent.ACTION_POINTER_UP, 1 ), 40, new int[]{ 0, 3 }, 580, 1000 );
+        send( listener, MotionEvent.ACTION_MOVE, 48, new int[]{ 0 }, 620 );
+        send( listener, MotionEvent.ACTION_UP, 56, new int[]{ 0 }, 620 );
+
+        final String liveDrag = log.toString();
+        assertEquals( "drag80 drag130 drag180 drag220 ", liveDrag );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listener.getGestureRecorder().writeTo( out );
+        GestureRecorder recording = GestureRecorder.readFrom( new ByteArrayInputStream( out.toByteArray() ) );
+        assertEquals( 12, recording.size() );
+        assertEquals( 3, recording.getPointerId( 3 ) );
+
+        log.setLength( 0 );
+        OnSwipeTouchListener replayed = new OnSwipeTouchListener();
+        SwipeAction action = loggingAction();
+        replayed.setTouchSlop( 8 );
+        replayed.addAction( action );
+        new GestureReplay( recording ).replay( replayed );
+
+        assertTrue( log.toString().startsWith( liveDrag ) );
+        assertEquals( live.getEngine().getFlingTargetStep(), action.getStep() );
+    }
+
+    private SwipeAction loggingAction() {
+        SwipeAction action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, new SwipeActionListener() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                log.append( "drag" ).append( Math.round( val ) ).append( ' ' );
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
+        } );
+        action.setVelocityEstimator( new LeastSquaresVelocityEstimator() );
+        return action;
+    }
+
+    private static SwipeAction newAction() {
+        SwipeAction action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, null );
+        action.setVelocityEstimator( new LeastSquaresVelocityEstimator() );
+        return action;
+    }
+
+    private static void send( OnSwipeTouchListener listener, int action, long time, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, action, 200, y, 0 );
+        listener.onTouch( null, event );
+        event.recycle();
+    }
+
+    private static int pointerAction( int action, int index ) {
+        return action | index << MotionEvent.ACTION_POINTER_INDEX_SHIFT;
+    }
+
+    private static void send( OnSwipeTouchListener listener, int action, long time, int[] ids, float... ys ) {
+        MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[ids.length];
+        MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[ids.length];
+        for( int p = 0; p < ids.length; p++ ) {
+            properties[p] = new MotionEvent.PointerProperties();
+            properties[p].id = ids[p];
+            properties[p].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[p] = new MotionEvent.PointerCoords();
+            coords[p].x = 200;
+            coords[p].y = ys[p];
+        }
+        MotionEvent event = MotionEvent.obtain( 0, time, action, ids.length, properties, coords, 0, 0, 1, 1, 0, 0, 0, 0 );
+        listener.onTouch( null, event );
+        event.recycle();
+    }
+}
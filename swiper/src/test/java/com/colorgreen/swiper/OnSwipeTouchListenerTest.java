@@ -0,0 +1,144 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks which actions receive rest of gesture after touch slop and which of them are cancelled.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class OnSwipeTouchListenerTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private AnimationLoop loop;
+    private OnSwipeTouchListener listener;
+    private SwipeAction down;
+    private SwipeAction right;
+    private SwipeAction up;
+
+    @Before
+    public void setUp() {
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+        listener = new OnSwipeTouchListener();
+        listener.setTouchSlop( 8 );
+
+        down = action( "down", SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 } );
+        right = action( "right", SwipeAction.DragDirection.Right, new float[]{ 0, 300 } );
+        up = action( "up", SwipeAction.DragDirection.Up, new float[]{ 0, -300, -600 } );
+    }
+
+    @Test
+    public void verticalMove_routesToActionWhichCanMove() {
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 100, 105 );
+        assertEquals( "down start right start up start ", log.toString() );
+
+        touch( MotionEvent.ACTION_MOVE, 32, 102, 150 );
+        assertEquals( "down start right start up start right end up end down drag50 ", log.toString() );
+
+        touch( MotionEvent.ACTION_MOVE, 48, 140, 170 );
+        assertEquals( "down start right start up start right end up end down drag50 down drag70 ", log.toString() );
+        assertTrue( down.isDragging() );
+        assertFalse( right.isDragging() );
+        assertFalse( up.isDragging() );
+    }
+
+    @Test
+    public void horizontalMove_routesOnlyToHorizontalAction() {
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 160, 110 );
+
+        assertEquals( "down start right start up start down end up end right drag60 ", log.toString() );
+    }
+
+    @Test
+    public void moveAgainstFirstStep_routesToOppositeAction() {
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 100, 40 );
+
+        assertEquals( "down start right start up start down end right end up drag-60 ", log.toString() );
+    }
+
+    @Test
+    public void moveInsideSlop_isNotDispatched() {
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 106, 94 );
+        assertEquals( "down start right start up start ", log.toString() );
+
+        // up of gesture which was not routed releases all touched actions
+        touch( MotionEvent.ACTION_UP, 32, 106, 94 );
+        assertTrue( down.getEngine().isFlinging() );
+        assertTrue( right.getEngine().isFlinging() );
+        assertTrue( up.getEngine().isFlinging() );
+    }
+
+    @Test
+    public void blockedAction_doesNotReceiveGesture() {
+        right.setBlocked( true );
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 160, 100 );
+
+        assertEquals( "down start up start down end up end ", log.toString() );
+        assertFalse( right.isDragging() );
+    }
+
+    @Test
+    public void nextDown_dispatchesToAllActionsAgain() {
+        touch( MotionEvent.ACTION_DOWN, 0, 100, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, 160, 100 );
+        touch( MotionEvent.ACTION_UP, 32, 160, 100 );
+        log.setLength( 0 );
+
+        // right action is still animated, its fling is caught where it is
+        touch( MotionEvent.ACTION_DOWN, 100, 100, 100 );
+        assertEquals( "down start right drag60 up start ", log.toString() );
+        assertTrue( right.isDragging() );
+        assertFalse( right.getEngine().isFlinging() );
+    }
+
+    ////////////////////////////////// PRIVATE FUNCTION ////////////////////////////////////////////
+
+    private SwipeAction action( final String name, SwipeAction.DragDirection direction, float[] steps ) {
+        SwipeAction action = new SwipeAction( direction, steps, 0.5f, new SwipeActionListener() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {
+                log.append( name ).append( " start " );
+            }
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                log.append( name ).append( " drag" ).append( Math.round( val ) ).append( ' ' );
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {
+                log.append( name ).append( " end " );
+            }
+        } );
+        action.setAnimationLoop( loop );
+        listener.addAction( action );
+        return action;
+    }
+
+    private void touch( int action, long time, float x, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, action, x, y, 0 );
+        listener.onTouch( null, event );
+        event.recycle();
+    }
+}
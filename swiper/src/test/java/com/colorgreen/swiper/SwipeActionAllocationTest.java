@@ -0,0 +1,147 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.LeastSquaresVelocityEstimator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that whole gesture, tracking and fling until it settles, does not allocate once the
+ * action is warmed up. Action uses default {@link TrackerVelocityEstimator}.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeActionAllocationTest {
+
+    private static final int MOVES = 32;
+    private static final int GESTURES = 200;
+    /**
+     * Bytes of one MotionEvent with batched samples, which is passed to VelocityTracker on
+     * release. The event is pooled and its samples are native on device, JVM shadow keeps samples
+     * as objects.
+     */
+    private static final int VELOCITY_EVENT_BUDGET = 4096;
+
+    private SwipeAction action;
+    private AnimationLoop loop;
+    private MotionEvent down;
+    private MotionEvent[] moves;
+    private MotionEvent up;
+
+    @Before
+    public void setUp() {
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, null );
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+        action.setAnimationLoop( loop );
+
+        down = MotionEvent.obtain( 0, 0, MotionEvent.ACTION_DOWN, 100, 100, 0 );
+        moves = new MotionEvent[MOVES];
+        for( int i = 0; i < MOVES; i++ )
+            moves[i] = MotionEvent.obtain( 0, ( i + 1 ) * 8, MotionEvent.ACTION_MOVE, 100, 100 + i * 4, 0 );
+        up = MotionEvent.obtain( 0, ( MOVES + 1 ) * 8, MotionEvent.ACTION_UP, 100, 100 + MOVES * 4, 0 );
+    }
+
+    @After
+    public void tearDown() {
+        action.release();
+        down.recycle();
+        for( MotionEvent e : moves )
+            e.recycle();
+        up.recycle();
+    }
+
+    @Test
+    public void tracking_doesNotAllocate() {
+        warmUp();
+        final long overhead = measureOverhead();
+
+        long allocated = 0;
+        for( int i = 0; i < GESTURES; i++ ) {
+            final long before = allocatedBytes();
+            press();
+            allocated += allocatedBytes() - before - overhead;
+            release();
+        }
+
+        assertEquals( 0, allocated );
+    }
+
+    @Test
+    public void gesture_allocatesAtMostVelocityEvent() {
+        warmUp();
+        final long overhead = measureOverhead();
+
+        final long before = allocatedBytes();
+        for( int i = 0; i < GESTURES; i++ ) {
+            press();
+            release();
+        }
+        final long allocated = allocatedBytes() - before - overhead;
+
+        assertTrue( "allocated " + allocated + " bytes", allocated <= (long) GESTURES * VELOCITY_EVENT_BUDGET );
+    }
+
+    @Test
+    public void gestureWithJvmEstimator_doesNotAllocate() {
+        action.setVelocityEstimator( new LeastSquaresVelocityEstimator() );
+        warmUp();
+        final long overhead = measureOverhead();
+
+        final long before = allocatedBytes();
+        for( int i = 0; i < GESTURES; i++ ) {
+            press();
+            release();
+        }
+        final long allocated = allocatedBytes() - before - overhead;
+
+        assertEquals( 0, allocated );
+    }
+
+    private void warmUp() {
+        for( int i = 0; i < GESTURES; i++ ) {
+            press();
+            release();
+        }
+    }
+
+    private void press() {
+        action.onTouch( null, down );
+        for( MotionEvent e : moves )
+            action.onTouch( null, e );
+    }
+
+    private void release() {
+        action.onTouch( null, up );
+
+        long time = 0;
+        loop.doFrame( time );
+        while( loop.getActiveCount() > 0 )
+            loop.doFrame( time += 16 );
+    }
+
+    private static long measureOverhead() {
+        final long overhead = allocatedBytes();
+        return allocatedBytes() - overhead;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+    }
+}
@@ -0,0 +1,98 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.PointerTracker;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Gestures with more fingers passed directly to action.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeActionPointerTest {
+
+    private SwipeAction action;
+
+    @Before
+    public void setUp() {
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, null );
+        action.setAnimationLoop( new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } ) );
+    }
+
+    @Test
+    public void secondFinger_takesDragWithoutJump() {
+        touch( MotionEvent.ACTION_DOWN, 0, new int[]{ 0 }, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, new int[]{ 0 }, 200 );
+        touch( pointerAction( MotionEvent.ACTION_POINTER_DOWN, 1 ), 24, new int[]{ 0, 5 }, 200, 500 );
+        assertEquals( 100, action.getEngine().getPosition(), 0 );
+
+        touch( MotionEvent.ACTION_MOVE, 32, new int[]{ 0, 5 }, 200, 550 );
+        assertEquals( 150, action.getEngine().getPosition(), 0 );
+
+        // drag goes back to first finger from its current position
+        touch( pointerAction( MotionEvent.ACTION_POINTER_UP, 1 ), 40, new int[]{ 0, 5 }, 200, 550 );
+        touch( MotionEvent.ACTION_MOVE, 48, new int[]{ 0 }, 230 );
+        assertEquals( 180, action.getEngine().getPosition(), 0 );
+
+        touch( MotionEvent.ACTION_UP, 56, new int[]{ 0 }, 230 );
+        assertTrue( action.getEngine().isFlinging() );
+    }
+
+    @Test
+    public void firstPointerHandoff_ignoresSecondFinger() {
+        action.setPointerHandoff( PointerTracker.Handoff.FIRST );
+        touch( MotionEvent.ACTION_DOWN, 0, new int[]{ 0 }, 100 );
+        touch( pointerAction( MotionEvent.ACTION_POINTER_DOWN, 1 ), 16, new int[]{ 0, 5 }, 100, 500 );
+        touch( MotionEvent.ACTION_MOVE, 32, new int[]{ 0, 5 }, 150, 700 );
+
+        assertEquals( 50, action.getEngine().getPosition(), 0 );
+    }
+
+    @Test
+    public void upOfNotDrivingFinger_keepsDrag() {
+        touch( MotionEvent.ACTION_DOWN, 0, new int[]{ 0 }, 100 );
+        touch( MotionEvent.ACTION_MOVE, 16, new int[]{ 0 }, 200 );
+        touch( pointerAction( MotionEvent.ACTION_POINTER_DOWN, 1 ), 24, new int[]{ 0, 5 }, 200, 500 );
+        touch( pointerAction( MotionEvent.ACTION_POINTER_UP, 0 ), 32, new int[]{ 0, 5 }, 200, 500 );
+        touch( MotionEvent.ACTION_MOVE, 40, new int[]{ 5 }, 540 );
+
+        assertEquals( 140, action.getEngine().getPosition(), 0 );
+        assertTrue( action.isDragging() );
+        assertFalse( action.getEngine().isFlinging() );
+    }
+
+    private static int pointerAction( int action, int index ) {
+        return action | index << MotionEvent.ACTION_POINTER_INDEX_SHIFT;
+    }
+
+    private void touch( int type, long time, int[] ids, float... ys ) {
+        MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[ids.length];
+        MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[ids.length];
+        for( int p = 0; p < ids.length; p++ ) {
+            properties[p] = new MotionEvent.PointerProperties();
+            properties[p].id = ids[p];
+            properties[p].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[p] = new MotionEvent.PointerCoords();
+            coords[p].x = 100;
+            coords[p].y = ys[p];
+        }
+        MotionEvent event = MotionEvent.obtain( 0, time, type, ids.length, properties, coords, 0, 0, 1, 1, 0, 0, 0, 0 );
+        action.onTouch( null, event );
+        event.recycle();
+    }
+}
@@ -0,0 +1,116 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+import com.colorgreen.swiper.core.RelativeSteps;
+import com.colorgreen.swiper.core.StepTable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Action with relative steps before its view is laid out.
+ */
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeActionRelativeStepsTest {
+
+    private View view;
+    private SwipeAction action;
+
+    @Before
+    public void setUp() {
+        view = new View( RuntimeEnvironment.application );
+        action = new SwipeAction( null );
+        action.setAnimationLoop( new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } ) );
+        action.setSteps( RelativeSteps.fractions( 0, 0.5f, 1 ), view );
+    }
+
+    @Test
+    public void touchBeforeLayout_isIgnored() {
+        assertNull( action.getStepTable() );
+        assertFalse( action.accepts( true, 50 ) );
+
+        assertFalse( touch( MotionEvent.ACTION_DOWN, 0, 100 ) );
+        assertFalse( touch( MotionEvent.ACTION_MOVE, 16, 300 ) );
+        assertFalse( action.isDragging() );
+
+        // steps resolved during ignored gesture do not take rest of it
+        view.layout( 0, 0, 100, 1000 );
+        assertFalse( touch( MotionEvent.ACTION_MOVE, 32, 350 ) );
+        assertFalse( action.isDragging() );
+        assertTrue( touch( MotionEvent.ACTION_DOWN, 100, 100 ) );
+        assertTrue( action.isDragging() );
+    }
+
+    @Test
+    public void sizeOnOtherAxis_doesNotResolveSteps() {
+        view.layout( 0, 0, 100, 0 );
+        assertFalse( touch( MotionEvent.ACTION_DOWN, 0, 100 ) );
+        assertNull( action.getStepTable() );
+    }
+
+    @Test
+    public void expandBeforeLayout_isAnimatedAfterLayout() {
+        action.expand();
+        assertEquals( 2, action.getSnapshotStep() );
+        assertEquals( 3, action.getSnapshotStepCount() );
+
+        view.layout( 0, 0, 100, 1000 );
+        assertTrue( action.getEngine().isFlinging() );
+        assertEquals( 2, action.getEngine().getFlingTargetStep() );
+        assertEquals( 1000, action.getEngine().getFlingTarget(), 0 );
+    }
+
+    @Test
+    public void setStepBeforeLayout_isAppliedAfterLayout() {
+        action.pushToStep( 2 );
+        action.setStep( 1 );
+        assertEquals( 1, action.getSnapshotStep() );
+
+        view.layout( 0, 0, 100, 1000 );
+        assertFalse( action.getEngine().isFlinging() );
+        assertEquals( 1, action.getStep() );
+        assertEquals( 500, action.getEngine().getPosition(), 0 );
+    }
+
+    @Test
+    public void sizeWithStepsOutOfOrder_keepsPreviousSteps() {
+        action.setSteps( new RelativeSteps( new int[]{ RelativeSteps.ABSOLUTE, RelativeSteps.VIEW, RelativeSteps.ABSOLUTE },
+                new float[]{ 0, 0.5f, 0 }, new float[]{ 0, 0, 300 } ), view );
+        view.layout( 0, 0, 100, 400 );
+        final StepTable table = action.getStepTable();
+        assertEquals( 200, table.get( 1 ), 0 );
+
+        // 500 would be after 300, layout pass does not crash
+        view.layout( 0, 0, 100, 1000 );
+        assertSame( table, action.getStepTable() );
+        assertTrue( action.accepts( true, 50 ) );
+
+        view.layout( 0, 0, 100, 500 );
+        assertEquals( 250, action.getStepTable().get( 1 ), 0 );
+    }
+
+    private boolean touch( int type, long time, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, type, 50, y, 0 );
+        final boolean handled = action.onTouch( null, event );
+        event.recycle();
+        return handled;
+    }
+}
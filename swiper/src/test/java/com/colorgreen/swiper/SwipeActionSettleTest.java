@@ -0,0 +1,114 @@
+package com.colorgreen.swiper;
+
+import android.view.MotionEvent;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeActionSettleTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private AnimationLoop loop;
+    private SwipeAction action;
+    private long predictedMillis;
+
+    @Before
+    public void setUp() {
+        loop = new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } );
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, new SwipeActionSettleListener() {
+            @Override
+            public void onSettlePredicted( int step, long settleMillis ) {
+                predictedMillis = settleMillis;
+                log.append( "predicted" ).append( step ).append( ' ' );
+            }
+
+            @Override
+            public void onSettleCancelled( int step, boolean byTouch ) {
+                log.append( "cancelled" ).append( step ).append( byTouch ? " touch " : " " );
+            }
+
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {}
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {
+                log.append( "end " );
+            }
+        } );
+        action.setAnimationLoop( loop );
+    }
+
+    @Test
+    public void expand_predictsStepAndDurationAtStart() {
+        action.expand();
+        assertEquals( "predicted2 ", log.toString() );
+        assertTrue( predictedMillis > 0 );
+
+        long time = 0;
+        loop.doFrame( time );
+        while( loop.getActiveCount() > 0 )
+            loop.doFrame( time += 16 );
+
+        assertEquals( "predicted2 end ", log.toString() );
+        assertEquals( predictedMillis, time, 16 );
+    }
+
+    @Test
+    public void touchOnAnimation_cancelsPrediction() {
+        action.expand();
+        loop.doFrame( 0 );
+        loop.doFrame( 16 );
+
+        MotionEvent down = MotionEvent.obtain( 0, 20, MotionEvent.ACTION_DOWN, 200, 500, 0 );
+        action.onTouch( null, down );
+        down.recycle();
+
+        assertEquals( "predicted2 cancelled2 touch ", log.toString() );
+    }
+
+    @Test
+    public void pushToOtherStep_replacesPrediction() {
+        action.expand();
+        action.pushToStep( 1 );
+
+        assertEquals( "predicted2 cancelled2 predicted1 ", log.toString() );
+    }
+
+    @Test
+    public void releaseDuringDrag_endsOnNearestStep() {
+        MotionEvent down = MotionEvent.obtain( 0, 0, MotionEvent.ACTION_DOWN, 200, 100, 0 );
+        MotionEvent move = MotionEvent.obtain( 0, 16, MotionEvent.ACTION_MOVE, 200, 300, 0 );
+        action.onTouch( null, down );
+        action.onTouch( null, move );
+        action.release();
+
+        assertEquals( "end ", log.toString() );
+        assertFalse( action.isDragging() );
+        assertEquals( 1, action.getStep() );
+
+        // next touch starts from settled step
+        action.onTouch( null, down );
+        action.onTouch( null, move );
+        assertEquals( 500, action.getEngine().getPosition(), 0 );
+        down.recycle();
+        move.recycle();
+    }
+}
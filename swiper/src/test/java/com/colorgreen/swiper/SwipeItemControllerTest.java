@@ -0,0 +1,124 @@
+package com.colorgreen.swiper;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeItemControllerTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private SwipeItemController controller;
+    private View first;
+    private View second;
+
+    @Before
+    public void setUp() {
+        controller = new SwipeItemController( SwipeAction.DragDirection.Left, new float[]{ 0, -300 }, 0.5f, 2, new SwipeItemListener() {
+            @Override
+            public void onDragStart( long id, View view, float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( long id, View view, float val, float totalFriction ) {
+                log.append( id ).append( ':' ).append( Math.round( val ) ).append( view == first ? "a " : view == second ? "b " : "? " );
+            }
+
+            @Override
+            public void onDragEnd( long id, View view, float val, float totalFriction ) {}
+        } );
+        first = new View( RuntimeEnvironment.application );
+        second = new View( RuntimeEnvironment.application );
+    }
+
+    @Test
+    public void bind_restoresStateWithOneOnDrag() {
+        controller.setStep( 1, 1 );
+        assertEquals( "", log.toString() );
+
+        controller.bindView( first, 1 );
+        controller.bindView( second, 2 );
+        assertEquals( "1:-300a 2:0b ", log.toString() );
+    }
+
+    @Test
+    public void rebind_showsStateOfNewItem() {
+        controller.setStep( 1, 1 );
+        controller.bindView( first, 1 );
+        controller.bindView( first, 2 );
+        controller.setStep( 1, 0 );
+
+        // item 1 has no view now
+        assertEquals( "1:-300a 2:0a ", log.toString() );
+        assertEquals( 0, controller.getStep( 1 ) );
+    }
+
+    @Test
+    public void recycledView_doesNotReceiveUpdates() {
+        controller.bindView( first, 1 );
+        controller.unbindView( first );
+        controller.setStep( 1, 1 );
+
+        assertEquals( "1:0a ", log.toString() );
+        assertEquals( 1, controller.getStep( 1 ) );
+
+        controller.bindView( first, 1 );
+        assertEquals( "1:0a 1:-300a ", log.toString() );
+    }
+
+    @Test
+    public void boundItem_isNotEvicted() {
+        controller.bindView( first, 1 );
+        controller.setStep( 1, 1 );
+        controller.setStep( 2, 1 );
+        controller.setStep( 3, 1 );
+
+        assertEquals( 1, controller.getStep( 1 ) );
+        assertEquals( 0, controller.getStep( 2 ) );
+        assertEquals( 1, controller.getStep( 3 ) );
+    }
+
+    @Test
+    public void reads_doNotKeepItemFromEviction() {
+        controller.setStep( 1, 1 );
+        controller.setStep( 2, 1 );
+        controller.getStep( 1 );
+        controller.isBlocked( 1 );
+        controller.setStep( 3, 1 );
+
+        assertEquals( 0, controller.getStep( 1 ) );
+        assertEquals( 1, controller.getStep( 2 ) );
+    }
+
+    @Test
+    public void singleOpen_collapsesOtherItems() {
+        controller.setSingleOpen( true );
+        controller.bindView( first, 1 );
+        controller.bindView( second, 2 );
+        controller.setStep( 1, 1 );
+        controller.setStep( 2, 1 );
+
+        assertEquals( "1:0a 2:0b 1:-300a 2:-300b 1:0a ", log.toString() );
+        assertEquals( 0, controller.getStep( 1 ) );
+        assertEquals( 1, controller.getStep( 2 ) );
+    }
+
+    @Test
+    public void singleOpen_keepsBlockedFlagOfCollapsedItem() {
+        controller.setSingleOpen( true );
+        controller.setStep( 1, 1 );
+        controller.setBlocked( 1, true );
+        controller.setStep( 2, 1 );
+
+        assertEquals( 0, controller.getStep( 1 ) );
+        assertTrue( controller.isBlocked( 1 ) );
+    }
+}
@@ -0,0 +1,205 @@
+package com.colorgreen.swiper;
+
+import android.support.v4.view.ViewCompat;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.AnimationLoop;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeLayoutTest {
+
+    private final StringBuilder log = new StringBuilder();
+    private SwipeLayout layout;
+    private View child;
+    private SwipeAction action;
+
+    @Before
+    public void setUp() {
+        layout = new SwipeLayout( RuntimeEnvironment.application );
+        child = new View( RuntimeEnvironment.application );
+        layout.addView( child );
+
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, new SwipeActionListener() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {
+                log.append( "start " );
+            }
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {}
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {
+                log.append( "end" ).append( Math.round( val ) ).append( ' ' );
+            }
+        } );
+        action.setAnimationLoop( new AnimationLoop( new AnimationLoop.FrameRequester() {
+            @Override
+            public void requestFrame() {
+            }
+        } ) );
+        layout.addAction( action );
+    }
+
+    @Test
+    public void moveInsideSlop_isNotIntercepted() {
+        assertFalse( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        assertFalse( intercept( MotionEvent.ACTION_MOVE, 16, 102, 104 ) );
+
+        assertFalse( action.isDragging() );
+    }
+
+    @Test
+    public void moveOverSlop_inAcceptedDirection_claimsGesture() {
+        assertFalse( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        assertTrue( intercept( MotionEvent.ACTION_MOVE, 16, 100, 200 ) );
+        assertTrue( action.isDragging() );
+        assertEquals( 100, action.getEngine().getPosition(), 0 );
+
+        assertTrue( touch( MotionEvent.ACTION_MOVE, 32, 100, 250 ) );
+        assertEquals( 150, action.getEngine().getPosition(), 0 );
+        assertTrue( touch( MotionEvent.ACTION_UP, 48, 100, 250 ) );
+        assertTrue( action.getEngine().isFlinging() );
+    }
+
+    @Test
+    public void moveInOtherDirection_isLeftToChildren() {
+        assertFalse( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        assertFalse( intercept( MotionEvent.ACTION_MOVE, 16, 200, 110 ) );
+        // gesture stays with children also when it turns
+        assertFalse( intercept( MotionEvent.ACTION_MOVE, 32, 200, 300 ) );
+
+        assertFalse( action.isDragging() );
+    }
+
+    @Test
+    public void downOnAnimation_claimsGestureOnce() {
+        action.expand();
+        assertTrue( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        // intercepted ACTION_DOWN is delivered also to onTouchEvent
+        assertTrue( touch( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+
+        assertTrue( action.isDragging() );
+        assertFalse( action.getEngine().isFlinging() );
+        assertEquals( "start ", log.toString() );
+
+        assertTrue( touch( MotionEvent.ACTION_MOVE, 16, 100, 150 ) );
+        assertEquals( 50, action.getEngine().getPosition(), 0 );
+    }
+
+    @Test
+    public void nestedPreScroll_opensActionBeforeChildScrolls() {
+        startNestedScroll();
+        int[] consumed = new int[2];
+        // scroll delta is opposite to finger movement
+        layout.onNestedPreScroll( child, 0, -50, consumed );
+
+        assertEquals( -50, consumed[1] );
+        assertTrue( action.isDragging() );
+        assertEquals( 50, action.getEngine().getPosition(), 0 );
+    }
+
+    @Test
+    public void nestedPreScroll_advancesOverSeveralSteps() {
+        startNestedScroll();
+        int[] consumed = new int[2];
+        layout.onNestedPreScroll( child, 0, -450, consumed );
+
+        assertEquals( -450, consumed[1] );
+        assertEquals( 1, action.getStep() );
+        assertEquals( 450, action.getEngine().getPosition(), 0 );
+        assertEquals( "start end300 start ", log.toString() );
+
+        consumed[1] = 0;
+        layout.onNestedPreScroll( child, 0, -400, consumed );
+        assertEquals( -150, consumed[1] );
+        assertEquals( 600, action.getEngine().getPosition(), 0 );
+
+        layout.onStopNestedScroll( child );
+        assertTrue( action.getEngine().isFlinging() );
+    }
+
+    @Test
+    public void nestedPreScroll_backward_isLeftToChild() {
+        startNestedScroll();
+        int[] consumed = new int[2];
+        layout.onNestedPreScroll( child, 0, 50, consumed );
+
+        assertEquals( 0, consumed[1] );
+        assertFalse( action.isDragging() );
+    }
+
+    @Test
+    public void nestedScroll_unconsumedByChild_movesActionBack() {
+        startNestedScroll();
+        int[] consumed = new int[2];
+        layout.onNestedPreScroll( child, 0, -100, consumed );
+        layout.onNestedScroll( child, 0, 0, 0, 60 );
+
+        assertEquals( 40, action.getEngine().getPosition(), 0 );
+    }
+
+    @Test
+    public void nestedPreFling_releasesActionWithVelocity() {
+        startNestedScroll();
+        int[] consumed = new int[2];
+        layout.onNestedPreScroll( child, 0, -100, consumed );
+
+        assertTrue( layout.onNestedPreFling( child, 0, -4000 ) );
+        assertTrue( action.getEngine().isFlinging() );
+        assertEquals( 1, action.getEngine().getFlingTargetStep() );
+    }
+
+    @Test
+    public void verticalNestedScroll_leavesHorizontalGesturesToActions() {
+        SwipeAction right = new SwipeAction( SwipeAction.DragDirection.Right, new float[]{ 0, 300 }, 0.5f, null );
+        layout.addAction( right );
+        startNestedScroll();
+
+        assertFalse( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        assertTrue( intercept( MotionEvent.ACTION_MOVE, 16, 200, 110 ) );
+        assertTrue( right.isDragging() );
+        assertFalse( action.isDragging() );
+    }
+
+    @Test
+    public void verticalNestedScroll_keepsVerticalGesturesForNestedScroll() {
+        startNestedScroll();
+
+        assertFalse( intercept( MotionEvent.ACTION_DOWN, 0, 100, 100 ) );
+        assertFalse( intercept( MotionEvent.ACTION_MOVE, 16, 100, 200 ) );
+        assertFalse( action.isDragging() );
+    }
+
+    private void startNestedScroll() {
+        assertTrue( layout.onStartNestedScroll( child, child, ViewCompat.SCROLL_AXIS_VERTICAL ) );
+        layout.onNestedScrollAccepted( child, child, ViewCompat.SCROLL_AXIS_VERTICAL );
+    }
+
+    private boolean intercept( int type, long time, float x, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, type, x, y, 0 );
+        final boolean intercepted = layout.onInterceptTouchEvent( event );
+        event.recycle();
+        return intercepted;
+    }
+
+    private boolean touch( int type, long time, float x, float y ) {
+        MotionEvent event = MotionEvent.obtain( 0, time, type, x, y, 0 );
+        final boolean handled = layout.onTouchEvent( event );
+        event.recycle();
+        return handled;
+    }
+}
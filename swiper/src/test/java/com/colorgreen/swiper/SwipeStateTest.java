@@ -0,0 +1,107 @@
+package com.colorgreen.swiper;
+
+import android.os.Parcel;
+import android.view.View;
+
+import com.colorgreen.swiper.core.RelativeSteps;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class SwipeStateTest {
+
+    private int drags;
+    private float lastDrag;
+
+    @Test
+    public void restore_movesToSavedStepWithOneDrag() {
+        OnSwipeTouchListener saved = new OnSwipeTouchListener();
+        SwipeAction top = newAction( new float[]{ 0, 300, 600 } );
+        saved.addAction( newAction( new float[]{ 0, 300, 600 } ) );
+        saved.addAction( top );
+        top.setStep( 1 );
+
+        SwipeState state = parcel( saved.saveState() );
+
+        // the same steps at new size
+        OnSwipeTouchListener restored = new OnSwipeTouchListener();
+        SwipeAction newTop = newAction( new float[]{ 0, 400, 800 } );
+        restored.addAction( newAction( new float[]{ 0, 400, 800 } ) );
+        restored.addAction( newTop );
+        drags = 0;
+        restored.restoreState( state );
+
+        assertEquals( 1, newTop.getStep() );
+        assertEquals( 400, newTop.getEngine().getPosition(), 0 );
+        // one onDrag for every action, top one is restored last
+        assertEquals( 400, lastDrag, 0 );
+        assertEquals( 2, drags );
+    }
+
+    @Test
+    public void restore_withOtherStepCount_usesProgress() {
+        OnSwipeTouchListener saved = new OnSwipeTouchListener();
+        SwipeAction action = newAction( new float[]{ 0, 300, 600 } );
+        saved.addAction( action );
+        action.setStep( 2 );
+
+        OnSwipeTouchListener restored = new OnSwipeTouchListener();
+        SwipeAction newAction = newAction( new float[]{ 0, 200, 400, 800 } );
+        restored.addAction( newAction );
+        restored.restoreState( parcel( saved.saveState() ) );
+
+        assertEquals( 3, newAction.getStep() );
+    }
+
+    @Test
+    public void restore_afterStepsResolved_dragsOnce() {
+        View view = new View( RuntimeEnvironment.application );
+        SwipeAction action = newAction( new float[]{ 0, 1 } );
+        action.setSteps( RelativeSteps.fractions( 0, 0.5f, 1 ), view );
+        OnSwipeTouchListener listener = new OnSwipeTouchListener();
+        listener.addAction( action );
+
+        // resolution posts move of idle action, restore reports new state instead of it
+        view.layout( 0, 0, 100, 1000 );
+        drags = 0;
+        listener.restoreState( new SwipeState( new int[]{ 1 }, new int[]{ 3 }, new float[]{ 0.5f } ) );
+
+        assertEquals( 1, drags );
+        assertEquals( 500, lastDrag, 0 );
+        assertEquals( 1, action.getStep() );
+    }
+
+    private SwipeAction newAction( float[] steps ) {
+        return new SwipeAction( SwipeAction.DragDirection.Down, steps, 0.5f, new SwipeActionListener() {
+            @Override
+            public void onDragStart( float val, float totalFriction ) {}
+
+            @Override
+            public void onDrag( float val, float totalFriction ) {
+                drags++;
+                lastDrag = val;
+            }
+
+            @Override
+            public void onDragEnd( float val, float totalFriction ) {}
+        } );
+    }
+
+    private static SwipeState parcel( SwipeState state ) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel( parcel, 0 );
+            parcel.setDataPosition( 0 );
+            return SwipeState.CREATOR.createFromParcel( parcel );
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
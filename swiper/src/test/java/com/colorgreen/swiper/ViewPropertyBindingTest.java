@@ -0,0 +1,118 @@
+package com.colorgreen.swiper;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.colorgreen.swiper.core.ColorLut;
+import com.colorgreen.swiper.core.FloatLut;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith( RobolectricTestRunner.class )
+@Config( sdk = 27 )
+public class ViewPropertyBindingTest {
+
+    private View view;
+    private SwipeAction action;
+    private float mapped;
+
+    @Before
+    public void setUp() {
+        view = new View( RuntimeEnvironment.application );
+        view.layout( 0, 0, 100, 200 );
+        action = new SwipeAction( SwipeAction.DragDirection.Down, new float[]{ 0, 300, 600 }, 0.5f, null );
+    }
+
+    @Test
+    public void property_followsDragValue() {
+        action.bind( view, ViewPropertyBinding.Property.TRANSLATION_Y );
+        drag( 150 );
+
+        assertEquals( 150, view.getTranslationY(), 0 );
+    }
+
+    @Test
+    public void property_mapsFrictionFromTo() {
+        action.bind( view, ViewPropertyBinding.Property.ALPHA, 0.2f, 1 );
+        // applied at once on current step
+        assertEquals( 0.2f, view.getAlpha(), 0.001f );
+
+        drag( 300 );
+        assertEquals( 0.6f, view.getAlpha(), 0.001f );
+    }
+
+    @Test
+    public void lut_isClampedAtBothEnds() {
+        ViewPropertyBinding binding = new ViewPropertyBinding( view, ViewPropertyBinding.Property.SCALE_X, FloatLut.linear( 1, 2 ) );
+
+        binding.apply( -60, -0.1f );
+        assertEquals( 1, view.getScaleX(), 0 );
+        binding.apply( 660, 1.1f );
+        assertEquals( 2, view.getScaleX(), 0 );
+        binding.apply( 300, 0.5f );
+        assertEquals( 1.5f, view.getScaleX(), 0.01f );
+    }
+
+    @Test
+    public void clipHeight_clipsFromTop() {
+        ViewPropertyBinding binding = new ViewPropertyBinding( view, ViewPropertyBinding.Property.CLIP_HEIGHT, null );
+        binding.apply( 80, 0 );
+
+        assertEquals( new Rect( 0, 0, 100, 80 ), view.getClipBounds() );
+    }
+
+    @Test
+    public void map_passesSampledValueClampedAtBothEnds() {
+        LutBinding binding = new LutBinding( FloatLut.linear( 10, 20 ), new FloatLut.Target() {
+            @Override
+            public void set( float value ) {
+                mapped = value;
+            }
+        } );
+
+        binding.apply( 0, 0.5f );
+        assertEquals( 15, mapped, 0.01f );
+        binding.apply( 0, -1 );
+        assertEquals( 10, mapped, 0 );
+        binding.apply( 0, 2 );
+        assertEquals( 20, mapped, 0 );
+    }
+
+    @Test
+    public void backgroundColor_isClampedAtBothEnds() {
+        LutBinding binding = new LutBinding( ColorLut.argb( Color.RED, Color.BLUE ), view );
+
+        binding.apply( 0, -0.5f );
+        assertEquals( Color.RED, ( (ColorDrawable) view.getBackground() ).getColor() );
+        binding.apply( 0, 1.5f );
+        assertEquals( Color.BLUE, ( (ColorDrawable) view.getBackground() ).getColor() );
+    }
+
+    @Test
+    public void unbind_stopsUpdates() {
+        action.bind( view, ViewPropertyBinding.Property.TRANSLATION_Y );
+        action.unbind( view );
+        drag( 150 );
+
+        assertEquals( 0, view.getTranslationY(), 0 );
+    }
+
+    private void drag( float distance ) {
+        MotionEvent down = MotionEvent.obtain( 0, 0, MotionEvent.ACTION_DOWN, 50, 0, 0 );
+        MotionEvent move = MotionEvent.obtain( 0, 16, MotionEvent.ACTION_MOVE, 50, distance, 0 );
+        action.onTouch( null, down );
+        action.onTouch( null, move );
+        down.recycle();
+        move.recycle();
+    }
+}